@@ -0,0 +1,218 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import nl.tudelft.contextproject.tygron.objects.PopUpClassifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A Bootstrap connects an agent to a session and selects its stakeholder. Steps that do not
+ * depend on each other run at the same time: the user data is loaded while the session is
+ * found and joined, and the server words are fetched while the stakeholder is selected.
+ * The duration of every step is recorded, so the startup time can be tracked.
+ */
+public class Bootstrap {
+  private static final Logger logger = LoggerFactory.getLogger(Bootstrap.class);
+
+  private final String mapName;
+  private final int slotId;
+  private final int stakeholderId;
+  private Environment.UpdateMode updateMode;
+  private File stateFile;
+  private boolean shareData;
+
+  private final Map<String, Long> timings;
+  private long totalMillis;
+
+  /**
+   * Creates a bootstrap.
+   * @param mapName the map to connect to
+   * @param slotId the preferred slot, or -1
+   * @param stakeholderId the stakeholder to select
+   */
+  public Bootstrap(String mapName, int slotId, int stakeholderId) {
+    this.mapName = mapName;
+    this.slotId = slotId;
+    this.stakeholderId = stakeholderId;
+    this.updateMode = Environment.UpdateMode.POLLING;
+    this.timings = new LinkedHashMap<>();
+  }
+
+  /**
+   * Sets the update mode of the environment, which is applied as soon as the session is joined.
+   * @param updateMode the update mode
+   */
+  public void setUpdateMode(Environment.UpdateMode updateMode) {
+    this.updateMode = updateMode;
+  }
+
+  /**
+   * Sets the file that keeps the session state, so a restarted agent rejoins its session
+   * instead of joining as a new client.
+   * @param stateFile the state file, or null to always join as a new client
+   */
+  public void setStateFile(File stateFile) {
+    this.stateFile = stateFile;
+  }
+
+  /**
+   * Sets whether the session is joined with connection data of its own and reads the data
+   * shared with the other sessions in this JVM, so several bootstraps can run side by side.
+   * Threads that use the session afterwards should bind its connection data with
+   * {@link HttpConnectionData#bind(HttpConnectionData)}. By default the session sets the
+   * connection data that is shared by all threads, which suits one session per JVM.
+   * @param shareData whether to share data with the other sessions
+   */
+  public void setShareData(boolean shareData) {
+    this.shareData = shareData;
+  }
+
+  /**
+   * Runs all steps with the given connector.
+   * @param connector a connector that has not loaded its user data yet
+   * @return the joined session, with the stakeholder selected
+   */
+  public Session run(final Connector connector) {
+    HttpConnectionData previous = shareData ? HttpConnectionData.bind(new HttpConnectionData()) : null;
+    try {
+      return runSteps(connector);
+    } finally {
+      if (shareData) {
+        HttpConnectionData.bind(previous);
+      }
+    }
+  }
+
+  private Session runSteps(final Connector connector) {
+    long start = System.nanoTime();
+    runAll(step("user", new Runnable() {
+      @Override
+      public void run() {
+        connector.loadUserData();
+      }
+    }), step("session", new Runnable() {
+      @Override
+      public void run() {
+        if (stateFile == null) {
+          connector.connectToMap(mapName, slotId);
+        } else {
+          connector.connectToMap(mapName, slotId, stateFile);
+        }
+        Session session = connector.getSession();
+        session.getEnvironment().setUpdateMode(updateMode);
+        if (shareData) {
+          session.getEnvironment().shareStaticData(session.getName());
+          session.getEnvironment().shareWorld(session.getConnectionData());
+        }
+      }
+    }));
+
+    if (shareData) {
+      // The joined session bound its data on the step thread, the next steps need it as well.
+      HttpConnectionData.bind(connector.getSession().getConnectionData());
+    }
+    final Environment environment = connector.getSession().getEnvironment();
+    runAll(step("stakeholder", new Runnable() {
+      @Override
+      public void run() {
+        environment.allowGameInteraction(true);
+        environment.setStakeholder(stakeholderId);
+      }
+    }), step("serverWords", new Runnable() {
+      @Override
+      public void run() {
+        environment.getServerWords(PopUpClassifier.getWordIds());
+      }
+    }));
+
+    synchronized (this) {
+      totalMillis = (System.nanoTime() - start) / 1000000;
+    }
+    logger.info("Bootstrap finished in " + getTotalMillis() + " ms " + getTimings());
+    return connector.getSession();
+  }
+
+  /**
+   * Runs two steps at the same time. The steps start tasks on the poll scheduler workers and
+   * wait for them, so they run on threads of their own instead of on the workers.
+   */
+  private void runAll(Callable<Object> first, Callable<Object> second) {
+    List<Callable<Object>> tasks = new ArrayList<>();
+    tasks.add(HttpConnectionData.propagate(first));
+    tasks.add(HttpConnectionData.propagate(second));
+    ExecutorService executor = Executors.newFixedThreadPool(tasks.size(),
+        new PollScheduler.DaemonThreadFactory("tygron-bootstrap"));
+    RuntimeException failure = null;
+    try {
+      for (Future<Object> future : executor.invokeAll(tasks)) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause() instanceof RuntimeException
+                ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } finally {
+      executor.shutdown();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Wraps a step in a task that records its duration.
+   */
+  private Callable<Object> step(final String name, final Runnable step) {
+    return new Callable<Object>() {
+      @Override
+      public Object call() {
+        long start = System.nanoTime();
+        try {
+          step.run();
+        } finally {
+          record(name, (System.nanoTime() - start) / 1000000);
+        }
+        return null;
+      }
+    };
+  }
+
+  private synchronized void record(String name, long millis) {
+    logger.debug("Bootstrap step " + name + " took " + millis + " ms");
+    timings.put(name, millis);
+  }
+
+  /**
+   * Returns the duration of every finished step, in the order they finished.
+   * @return the durations in milliseconds by step name
+   */
+  public synchronized Map<String, Long> getTimings() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+  }
+
+  /**
+   * Returns the time the whole bootstrap took.
+   * @return the duration in milliseconds, or 0 if the bootstrap did not finish
+   */
+  public synchronized long getTotalMillis() {
+    return totalMillis;
+  }
+}
@@ -7,6 +7,8 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+
 /**
  * The TygronConnector is the bridge between the Tygron API and JAVA.
  */
@@ -22,8 +24,18 @@ public class Connector {
    * Create a new TygronConnector.
    */
   public Connector() {
+    this(true);
+  }
+
+  /**
+   * Create a new TygronConnector.
+   * @param loadUser Whether to load the user data now, otherwise {@link #loadUserData()} should be called later.
+   */
+  public Connector(boolean loadUser) {
     logger.info("Connector loading.");
-    loadUserData();
+    if (loadUser) {
+      loadUserData();
+    }
     sessionManager = new SessionManager();
     logger.info("Connector loading complete.");
   }
@@ -58,6 +70,26 @@ public class Connector {
     session = sessionManager.createOrFindSessionAndJoin(mapName,slotId);
   }
 
+  /**
+   * Connect to a session on a mapname, rejoining the session of an earlier run if possible.
+   * @param mapName The project name.
+   * @param stateFile The file that keeps the session state between runs.
+   */
+  public void connectToMap(String mapName, File stateFile) {
+    session = sessionManager.rejoinOrCreate(mapName, stateFile);
+  }
+
+  /**
+   * Connect to a session on a mapname, rejoining the session of an earlier run if possible,
+   * and otherwise preferring a slot.
+   * @param mapName The project name.
+   * @param slotId The session slot id.
+   * @param stateFile The file that keeps the session state between runs.
+   */
+  public void connectToMap(String mapName, int slotId, File stateFile) {
+    session = sessionManager.rejoinOrCreate(mapName, slotId, stateFile);
+  }
+
   /**
    * Return the session manager.
    * @return the session manager
@@ -2,37 +2,49 @@ package nl.tudelft.contextproject.tygron.api;
 
 import com.esri.core.geometry.Polygon;
 
+import nl.tudelft.contextproject.tygron.api.actions.PlayerEvent;
+import nl.tudelft.contextproject.tygron.api.loaders.ActionListLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.BuildingListLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.EconomyListLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.FunctionMapLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.IndicatorListLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.LandMapLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.Loader;
-import nl.tudelft.contextproject.tygron.api.loaders.ServerWordsLoader;
+import nl.tudelft.contextproject.tygron.api.loaders.ServerWordsStoreLoader;
+import nl.tudelft.contextproject.tygron.api.loaders.SharedLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.StakeholderListLoader;
 import nl.tudelft.contextproject.tygron.api.loaders.ZoneListLoader;
 import nl.tudelft.contextproject.tygron.handlers.BooleanResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
 import nl.tudelft.contextproject.tygron.objects.Action;
 import nl.tudelft.contextproject.tygron.objects.ActionList;
-import nl.tudelft.contextproject.tygron.objects.Building;
 import nl.tudelft.contextproject.tygron.objects.BuildingList;
 import nl.tudelft.contextproject.tygron.objects.LandMap;
 import nl.tudelft.contextproject.tygron.objects.PopUpHandler;
+import nl.tudelft.contextproject.tygron.objects.ServerWords;
 import nl.tudelft.contextproject.tygron.objects.Stakeholder;
 import nl.tudelft.contextproject.tygron.objects.StakeholderList;
 import nl.tudelft.contextproject.tygron.objects.indicators.Indicator;
 import nl.tudelft.contextproject.tygron.objects.indicators.IndicatorFinance;
 import nl.tudelft.contextproject.tygron.objects.indicators.IndicatorList;
+import nl.tudelft.contextproject.util.GeometryPool;
+import nl.tudelft.contextproject.util.LandSelector;
 import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Contains all data that the Tygron Game can provide.
@@ -40,38 +52,91 @@ import java.util.Random;
 public class Environment {
 
   private static final Logger logger = LoggerFactory.getLogger(Environment.class);
+
+  /**
+   * The time between two updates of the environment in milliseconds.
+   */
+  public static final long POLL_INTERVAL = 10000;
+
+  /**
+   * The time to wait for more invalidations before reloading invalidated data, in milliseconds.
+   */
+  public static final long INVALIDATION_DELAY = 250;
+
+  /**
+   * The time between two checks for new popups in milliseconds. Popups are checked separately
+   * from the other data, so requests of other stakeholders are answered without delay.
+   */
+  public static final long POPUP_INTERVAL = 500;
   
   //The error margin for the amount of land
   private final double errorMargin = 0.10;
 
   // Environment oriented
-  private PopUpHandler popUpHandler;
+  private volatile PopUpHandler popUpHandler;
 
   // Session data oriented
   Map<Class<?>, Loader<?>> loaderMap;
   
+  private final LandSelector landSelector;
+
   private int mapWidth;
+  private OccupancyGrid occupancyGrid;
+
+  private PollScheduler.Poll poll;
+  private PollScheduler.Poll popUpPoll;
+
+  private UpdateMode updateMode;
+
+  // Data classes that should be reloaded because of an event
+  private final Set<Class<?>> invalidated;
+  private boolean invalidationScheduled;
+
+  // Actions that were sent but are not yet part of the loaded data
+  private final SpeculativeOverlay overlay;
 
-  private Thread environmentThread;
+  // The free land of every stakeholder, updated when buildings or lands change
+  private final FreeLandModel freeLand;
+
+  // Results derived from the loaded lands and buildings
+  private final GeometryCache geometryCache;
 
   private int stakeholderId;
 
+  // The popup version to continue from when a stakeholder is selected
+  private int resumePopUpVersion;
+
+  // Runs after loading popups changed the popup version
+  private volatile Runnable popUpListener;
+
+  // The world shared with the other environments in the slot, and the loaders it replaced
+  private SlotWorld world;
+  private HttpConnectionData worldConnectionData;
+  private Map<Class<?>, Loader<?>> ownLoaders;
+
   /**
    * Creates an environment that communicates with the session API.
    */
   public Environment() {
     stakeholderId = -1;
-    environmentThread = new Thread(new Poller());
+    updateMode = UpdateMode.POLLING;
+    invalidated = new HashSet<>();
+    overlay = new SpeculativeOverlay();
+    freeLand = new FreeLandModel();
+    geometryCache = new GeometryCache();
+    landSelector = new LandSelector(errorMargin);
 
-    loaderMap = new HashMap<>();
+    // Replaced by shareWorld and leaveWorld while the poll and agent threads read it
+    loaderMap = new ConcurrentHashMap<>();
     putLoader(new BuildingListLoader());
     putLoader(new EconomyListLoader());
-    putLoader(new FunctionMapLoader());
+    putLoader(new SharedLoader<>(new FunctionMapLoader()));
     putLoader(new IndicatorListLoader());
     putLoader(new LandMapLoader());
     putLoader(new StakeholderListLoader());
     putLoader(new ZoneListLoader());
-    putLoader(new ServerWordsLoader());
+    putLoader(new SharedLoader<>(new ServerWordsStoreLoader()));
+    putLoader(new SharedLoader<>(new ActionListLoader()));
   }
 
   public void putLoader(Loader<?> loader) {
@@ -84,10 +149,183 @@ public class Environment {
   }
 
   /**
-   * Starts the update loop for this environment.
+   * Shares the data that never changes with the other sessions of a project in this JVM,
+   * instead of keeping a copy per session.
+   * @param project the name of the project
+   */
+  public void shareStaticData(String project) {
+    for (Loader<?> loader : loaderMap.values()) {
+      if (loader instanceof SharedLoader) {
+        ((SharedLoader<?>) loader).attach(project);
+      }
+    }
+  }
+
+  /**
+   * Releases the data shared with the other sessions of the project.
+   */
+  public void releaseStaticData() {
+    for (Loader<?> loader : loaderMap.values()) {
+      if (loader instanceof SharedLoader) {
+        ((SharedLoader<?>) loader).detach();
+      }
+    }
+  }
+
+  /**
+   * Reads the lists from the world shared by all environments in the slot of this session,
+   * instead of loading them itself. Popups are still loaded by this environment.
+   * @param connectionData the connection data of this session
    */
-  public void start() {
-    environmentThread.start();
+  public synchronized void shareWorld(HttpConnectionData connectionData) {
+    if (world != null) {
+      return;
+    }
+    ownLoaders = new HashMap<>();
+    List<Loader<?>> worldLoaders = new ArrayList<>();
+    for (Loader<?> loader : loaderMap.values()) {
+      if (!loader.getRefreshInterval().equals(Loader.RefreshInterval.NEVER)) {
+        ownLoaders.put(loader.getDataClass(), loader);
+        // The world gets loaders of its own, so they are never reloaded outside its locks.
+        worldLoaders.add(loader.newLoader());
+      }
+    }
+    world = SlotWorld.attach(connectionData, worldLoaders);
+    worldConnectionData = connectionData;
+    for (Class<?> dataClass : world.getDataClasses()) {
+      putLoader(snapshotLoader(dataClass));
+    }
+  }
+
+  private <T> Loader<T> snapshotLoader(Class<T> dataClass) {
+    return new SlotWorld.SnapshotLoader<>(world, dataClass);
+  }
+
+  /**
+   * Stops sharing the world of the slot, and loads the lists again itself.
+   */
+  public synchronized void leaveWorld() {
+    if (world == null) {
+      return;
+    }
+    for (Loader<?> loader : ownLoaders.values()) {
+      putLoader(loader);
+    }
+    world.detach(worldConnectionData);
+    world = null;
+    worldConnectionData = null;
+    ownLoaders = null;
+  }
+
+  public synchronized SlotWorld getWorld() {
+    return world;
+  }
+
+  /**
+   * Describes when an environment updates its data.
+   */
+  public enum UpdateMode {
+    /**
+     * The environment updates itself in the background every {@link Environment#POLL_INTERVAL}.
+     */
+    POLLING,
+    /**
+     * The environment has no background updates and is updated by calling {@link Environment#step()}.
+     */
+    STEP
+  }
+
+  /**
+   * Changes when this environment updates its data. Switching to STEP stops the update loop.
+   * @param updateMode the new update mode
+   */
+  public synchronized void setUpdateMode(UpdateMode updateMode) {
+    this.updateMode = updateMode;
+    if (updateMode == UpdateMode.STEP) {
+      stop();
+    }
+  }
+
+  public synchronized UpdateMode getUpdateMode() {
+    return updateMode;
+  }
+
+  /**
+   * Starts the update loop for this environment on the shared poll scheduler.
+   */
+  public synchronized void start() {
+    start(PollScheduler.getInstance());
+  }
+
+  /**
+   * Starts the update loop for this environment on the given scheduler.
+   * @param scheduler the scheduler that should run the updates
+   */
+  public synchronized void start(PollScheduler scheduler) {
+    if (updateMode == UpdateMode.STEP) {
+      logger.debug("Environment is updated in steps, not starting the update loop");
+      return;
+    }
+    if (isRunning()) {
+      logger.debug("Environment update loop is already running");
+      return;
+    }
+    logger.debug("Starting Environment update loop...");
+    String name = Integer.toHexString(System.identityHashCode(this));
+    poll = scheduler.schedule("environment-" + name, new Poller(), POLL_INTERVAL);
+    startPopUps(scheduler);
+  }
+
+  /**
+   * Starts checking for new popups on the given scheduler, also when the environment is
+   * updated in steps. The popups are loaded with the connection data bound to the caller.
+   * @param scheduler the scheduler that should run the checks
+   */
+  public synchronized void startPopUps(PollScheduler scheduler) {
+    if (popUpPoll == null) {
+      String name = Integer.toHexString(System.identityHashCode(this));
+      popUpPoll = scheduler.schedule("popups-" + name, new PopUpPoller(), POPUP_INTERVAL);
+    }
+  }
+
+  /**
+   * Stops the update loop and the popup checks for this environment. An update in progress
+   * will be finished.
+   */
+  public synchronized void stop() {
+    if (poll != null) {
+      logger.debug("Stopping Environment update loop. " + poll);
+      poll.cancel();
+      poll = null;
+    }
+    if (popUpPoll != null) {
+      popUpPoll.cancel();
+      popUpPoll = null;
+    }
+  }
+
+  /**
+   * Returns whether the update loop of this environment is running.
+   * @return whether the update loop is running
+   */
+  public synchronized boolean isRunning() {
+    return poll != null;
+  }
+
+  /**
+   * Returns the poll of this environment, which tells how long the updates take and how late they run.
+   * @return the poll, or null if the environment is not running
+   */
+  public synchronized PollScheduler.Poll getPoll() {
+    return poll;
+  }
+
+  /**
+   * Returns the poll that checks for new popups.
+   * @return the poll, or null if popups are not checked for
+   */
+  public synchronized PollScheduler.Poll getPopUpPoll() {
+    return popUpPoll;
   }
   
   /**
@@ -105,20 +343,132 @@ public class Environment {
   }
   
   /**
-   * Reloads all loaders.
+   * Reloads all loaders. The loaders are reloaded in parallel, unchanged items are reused.
    */
   public void reload() {
+    // Everything is reloaded, so earlier invalidations are handled as well.
+    synchronized (invalidated) {
+      invalidated.clear();
+    }
+    List<Loader<?>> loaders = new ArrayList<>();
     for (Map.Entry<Class<?>, Loader<?>> loaderEntry : loaderMap.entrySet()) {
       Loader<?> loader = loaderEntry.getValue();
       if (!loader.getRefreshInterval().equals(Loader.RefreshInterval.NEVER)) {
-        loader.reload();
+        loaders.add(loader);
       }
     }
-    if (popUpHandler != null) {
-      popUpHandler.loadPopUps();
+    reloadAll(loaders);
+    // Popups that are checked for by their own poll are not loaded again.
+    if (getPopUpPoll() == null) {
+      loadPopUps();
     }
   }
 
+  /**
+   * Loads new popups and answers them, if a stakeholder is selected.
+   */
+  private void loadPopUps() {
+    PopUpHandler handler = popUpHandler;
+    if (handler != null) {
+      int version = handler.getVersion();
+      handler.loadPopUps();
+      Runnable listener = popUpListener;
+      if (listener != null && handler.getVersion() != version) {
+        listener.run();
+      }
+    }
+  }
+
+  /**
+   * Reloads the given loaders in parallel.
+   * @param loaders the loaders to reload
+   */
+  private void reloadAll(List<Loader<?>> loaders) {
+    List<Callable<Object>> tasks = new ArrayList<>();
+    for (final Loader<?> loader : loaders) {
+      tasks.add(new Callable<Object>() {
+        @Override
+        public Object call() {
+          return loader.reload();
+        }
+      });
+    }
+    PollScheduler.getInstance().invokeAll(tasks);
+  }
+
+  /**
+   * Marks the data changed by an event as outdated. The data is reloaded shortly after,
+   * together with the data invalidated by other events in the meantime.
+   * @param event the event that was sent to the server
+   */
+  public void invalidate(PlayerEvent event) {
+    invalidate(event.getInvalidates());
+  }
+
+  /**
+   * Marks data as outdated. The data is reloaded shortly after, together with the data
+   * invalidated in the meantime. In STEP mode the data is reloaded on the next step.
+   * @param dataClasses the classes of the outdated data
+   */
+  public void invalidate(Collection<Class<?>> dataClasses) {
+    synchronized (invalidated) {
+      invalidated.addAll(dataClasses);
+      if (invalidated.isEmpty() || invalidationScheduled || getUpdateMode() == UpdateMode.STEP) {
+        return;
+      }
+      invalidationScheduled = true;
+    }
+    PollScheduler.getInstance().scheduleOnce(new Runnable() {
+      @Override
+      public void run() {
+        reloadInvalidated();
+      }
+    }, INVALIDATION_DELAY);
+  }
+
+  /**
+   * Reloads all data that was invalidated since the last reload.
+   */
+  public void reloadInvalidated() {
+    List<Loader<?>> loaders = new ArrayList<>();
+    synchronized (invalidated) {
+      for (Class<?> dataClass : invalidated) {
+        Loader<?> loader = getLoader(dataClass);
+        if (loader != null) {
+          loaders.add(loader);
+        }
+      }
+      invalidated.clear();
+      invalidationScheduled = false;
+    }
+    if (!loaders.isEmpty()) {
+      logger.debug("Reloading " + loaders.size() + " invalidated loaders");
+      reloadAll(loaders);
+    }
+  }
+
+  /**
+   * Returns the data classes that are waiting to be reloaded.
+   * @return the invalidated data classes
+   */
+  public Set<Class<?>> getInvalidated() {
+    synchronized (invalidated) {
+      return new HashSet<>(invalidated);
+    }
+  }
+
+  /**
+   * Updates an environment that is in STEP mode. This should be called once at the start of
+   * every perception round, so the requests line up with the moments the data is used.
+   */
+  public void step() {
+    if (getUpdateMode() != UpdateMode.STEP) {
+      logger.debug("Environment is polling, ignoring step");
+      return;
+    }
+    reload();
+  }
+
   /**
    * Reloads a certain loader.
    * @param dataClass the key the Loader is mapped to
@@ -139,6 +489,16 @@ public class Environment {
     return getLoader(dataClass).get();
   }
   
+  /**
+   * Returns the translations of the given server words, loading only the missing ones.
+   * The words are shared with the other sessions of the project, see {@link #shareStaticData(String)}.
+   * @param ids the ids of the server words
+   * @return the translations mapped by id
+   */
+  public ServerWords getServerWords(Collection<Integer> ids) {
+    return get(ServerWordsStore.class).getWords(ids);
+  }
+
   /**
    * Select a stakeholder to play, can only be done once.
    * @param stakeholderId the stakeholder id to select.
@@ -153,7 +513,9 @@ public class Environment {
     if (!retValue) {
       throw new RuntimeException("Stakeholder could not be selected!");
     } else {
-      popUpHandler = new PopUpHandler(this, stakeholderId);
+      PopUpHandler handler = new PopUpHandler(this, stakeholderId);
+      handler.setVersion(resumePopUpVersion);
+      popUpHandler = handler;
     }
   }
 
@@ -181,6 +543,7 @@ public class Environment {
             new StakeholderReleaseRequest(stakeholderId));
     stakeholderId = -1;
     popUpHandler = null;
+    overlay.clear();
     
     return true;
   }
@@ -205,13 +568,19 @@ public class Environment {
    * @param stakeholder The stakeholder.
    * @return The polygon respresenting the land.
    */
-  public Polygon getAllLand(Stakeholder stakeholder) {
-    Polygon land = new Polygon();
-    for (Integer landId : stakeholder.getOwnedLands()) {
-      land = PolygonUtil.polygonUnion(land, get(LandMap.class).get(landId).getPolygon());
-    }
-    
-    return land;
+  public Polygon getAllLand(final Stakeholder stakeholder) {
+    final LandMap lands = get(LandMap.class);
+    return geometryCache.get("allLand", stakeholder, lands,
+        new GeometryCache.Computation() {
+          @Override
+          public Polygon compute() {
+            List<Polygon> polygons = new ArrayList<>();
+            for (Integer landId : stakeholder.getOwnedLands()) {
+              polygons.add(lands.get(landId).getPolygon());
+            }
+            return PolygonUtil.polygonUnion(polygons);
+          }
+        });
   }
   
   /**
@@ -228,68 +597,143 @@ public class Environment {
    * @param stakeholder The stakeholder.
    * @return The stakeholder's free land.
    */
-  public Polygon getAvailableLand(Stakeholder stakeholder) {
-    Polygon land = getAllLand(stakeholder);
-      
-    for (Building building : get(BuildingList.class)) {
-      if (!building.demolished()) {
-        land = PolygonUtil.polygonDifference(land, building.getPolygon());
-      }
+  public Polygon getAvailableLand(final Stakeholder stakeholder) {
+    BuildingList buildings = reconcileOverlay();
+    // The free land model keeps its result until the lands or buildings change.
+    Polygon land = freeLand.getFreeLand(stakeholder, get(LandMap.class), buildings);
+    if (stakeholder.getId() == stakeholderId && !overlay.isEmpty()) {
+      land = overlay.projectAvailableLand(land, getAllLand(stakeholder), buildings);
     }
-    
     return land;
   }
+
+  /**
+   * Get the free land of every other stakeholder, computed in parallel on the {@link GeometryPool}.
+   * @return The free land per stakeholder id, in the order of the stakeholder list.
+   */
+  public Map<Integer, Polygon> getBuyableLand() {
+    // Load the data and build the indexes once, instead of in every task.
+    get(LandMap.class).getIndex();
+    get(BuildingList.class).getIndex();
+
+    List<Integer> ids = new ArrayList<>();
+    List<Callable<Polygon>> tasks = new ArrayList<>();
+    for (final Stakeholder stakeholder : get(StakeholderList.class)) {
+      if (stakeholder.getId() != getStakeholderId()) {
+        ids.add(stakeholder.getId());
+        tasks.add(new Callable<Polygon>() {
+          @Override
+          public Polygon call() {
+            // Land that this stakeholder is already buying cannot be bought again.
+            return getOverlay().projectBuyableLand(getAvailableLand(stakeholder));
+          }
+        });
+      }
+    }
+    List<Polygon> lands = GeometryPool.getInstance().invokeAll(tasks);
+    Map<Integer, Polygon> result = new LinkedHashMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      result.put(ids.get(i), lands.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Get the loaded buildings after the changes requested by this environment that are not loaded yet.
+   * Requested buildings are added and buildings that are being demolished are left out.
+   * @return the projected buildings
+   */
+  public BuildingList getProjectedBuildings() {
+    return overlay.projectBuildings(reconcileOverlay());
+  }
+
+  /**
+   * Removes the changes from the overlay that are part of the loaded data.
+   * @return the loaded buildings
+   */
+  private BuildingList reconcileOverlay() {
+    Loader<BuildingList> buildingLoader = getLoader(BuildingList.class);
+    BuildingList buildings = buildingLoader.get();
+    Loader<LandMap> landLoader = getLoader(LandMap.class);
+    overlay.reconcile(buildings, buildingLoader.getLoadStarted(), landLoader.get(), landLoader.getLoadStarted(),
+        stakeholderId);
+    return buildings;
+  }
+
+  /**
+   * Records a construction that was sent to the server, so it is taken into account
+   * before the buildings are reloaded.
+   * @param functionId the function of the building
+   * @param floors the amount of floors
+   * @param polygon the land the building is built on
+   */
+  public void speculateConstruction(int functionId, int floors, Polygon polygon) {
+    overlay.addConstruction(functionId, floors, polygon);
+  }
+
+  /**
+   * Records a demolition that was sent to the server, so it is taken into account
+   * before the buildings are reloaded.
+   * @param polygon the land that is demolished
+   */
+  public void speculateDemolition(Polygon polygon) {
+    overlay.addDemolition(polygon);
+  }
+
+  /**
+   * Records a purchase that was sent to the server, so it is taken into account
+   * before the land is reloaded.
+   * @param polygon the land that is bought
+   */
+  public void speculatePurchase(Polygon polygon) {
+    overlay.addPurchase(polygon);
+  }
+
+  public SpeculativeOverlay getOverlay() {
+    return overlay;
+  }
+
+  public GeometryCache getGeometryCache() {
+    return geometryCache;
+  }
   
   /**
    * Gets a piece of land of a certain surface from the available land.
    * @param availableLand The available land.
    * @param surface The desired surface of the land.
-   * @return A piece of land with a certain surface.
+   * @return A piece of land with a certain surface, or null if there is no such piece of land.
    */
   public Polygon getSuitableLand(Polygon availableLand, double surface) {
-    loadMapWidth();
-    Random random = new Random();
-    Polygon selectedLand;
-    Polygon intersection;
-    
-    double x1;
-    double y1;
-    double x2;
-    double y2;
-    // Select a random rectangle in the map and get the part of land that is available.
-    do {
-      x1 = random.nextDouble() * mapWidth;
-      y1 = random.nextDouble() * mapWidth;
-      x2 = random.nextDouble() * mapWidth;
-      y2 = random.nextDouble() * mapWidth;
-      selectedLand = PolygonUtil.makeRectangle(x1, y1, x2, y2);
-      intersection = PolygonUtil.polygonIntersection(selectedLand, availableLand);
-    } while (intersection.calculateArea2D() < surface);
-    
-    while (!withinMargin(intersection, surface) && intersection.calculateArea2D() != 0) {
-      // Reduce the land to a square as much as possible
-      if (Math.abs(x1 - x2) > Math.abs(y1 - y2)) {
-        x1 = x2 > x1 ? x1 + 0.5 : x1 - 0.5;
-      } else {
-        y1 = y2 > y1 ? y1 + 0.5 : y1 - 0.5;
-      }
-      selectedLand = PolygonUtil.makeRectangle(x1, y1, x2, y2);
-      intersection = PolygonUtil.polygonIntersection(selectedLand, availableLand);
-    }
-
-    // If the selected land is empty, try again
-    return intersection.calculateArea2D() != 0 ? intersection :
-      getSuitableLand(availableLand, surface);
+    return landSelector.select(availableLand, surface);
   }
 
   /**
    * Asks how wide this map is.
+   * @return the width of the map
    */
-  private void loadMapWidth() {
+  public synchronized int getMapWidth() {
     if (mapWidth == 0) {
       mapWidth = HttpConnection.getInstance().execute("lists/settings/31/",
               CallType.GET, new JsonObjectResultHandler(), true).getInt("value");
     }
+    return mapWidth;
+  }
+
+  /**
+   * Get a raster of the owners and buildings of the map, updated to the loaded lands and buildings.
+   * The grid is only created when it is used for the first time.
+   * @return the occupancy grid
+   */
+  public OccupancyGrid getOccupancyGrid() {
+    OccupancyGrid grid;
+    synchronized (this) {
+      if (occupancyGrid == null) {
+        occupancyGrid = new OccupancyGrid(getMapWidth());
+      }
+      grid = occupancyGrid;
+    }
+    grid.update(get(LandMap.class), get(BuildingList.class));
+    return grid;
   }
 
   /**
@@ -299,8 +743,7 @@ public class Environment {
    * @return if a polygon is within a certain surface size
    */
   public boolean withinMargin(Polygon selectedLand, double surface) {
-    return selectedLand.calculateArea2D() < surface * (1 + errorMargin) 
-        && selectedLand.calculateArea2D() > surface * (1 - errorMargin);
+    return landSelector.withinMargin(selectedLand, surface);
   }
   
   /**
@@ -352,6 +795,45 @@ public class Environment {
     return -1;
   }
   
+  /**
+   * Returns the handler that answers the popups of the selected stakeholder.
+   * @return The handler, or null if no stakeholder is selected.
+   */
+  public PopUpHandler getPopUpHandler() {
+    return popUpHandler;
+  }
+
+  /**
+   * Continues loading popups from a version, so popups of an earlier connection that were
+   * handled already are not loaded again.
+   * @param version The version of the last loaded popups.
+   */
+  public void resumePopUps(int version) {
+    resumePopUpVersion = version;
+    PopUpHandler handler = popUpHandler;
+    if (handler != null) {
+      handler.setVersion(version);
+    }
+  }
+
+  /**
+   * Sets what to run every time new popups were loaded and answered, like saving the popup
+   * version.
+   * @param listener The listener, or null to remove it.
+   */
+  public void setPopUpListener(Runnable listener) {
+    popUpListener = listener;
+  }
+
+  /**
+   * Returns the version of the last loaded popups.
+   * @return The version.
+   */
+  public int getPopUpVersion() {
+    PopUpHandler handler = popUpHandler;
+    return handler == null ? resumePopUpVersion : handler.getVersion();
+  }
+
   public int requestsOpen() {
     return popUpHandler.requestsOpen();
   }
@@ -361,20 +843,22 @@ public class Environment {
    */
   class Poller implements Runnable {
     /**
-     * Main update run for the environment.
+     * Single update run for the environment.
      */
     @Override
     public void run() {
-      logger.debug("Running Environment update loop...");
-      while (true) {
-        reload();
-        try {
-          Thread.sleep(10000);
-        } catch (InterruptedException e) {
-          logger.error("Environment crashed!");
-          throw new RuntimeException(e);
-        }
-      }
+      logger.debug("Running Environment update...");
+      reload();
+    }
+  }
+
+  /**
+   * A PopUpPoller checks for new popups between the updates of an Environment.
+   */
+  class PopUpPoller implements Runnable {
+    @Override
+    public void run() {
+      loadPopUps();
     }
   }
 }
@@ -0,0 +1,231 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.Building;
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.Land;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.SpatialItem;
+import nl.tudelft.contextproject.tygron.objects.Stakeholder;
+import nl.tudelft.contextproject.tygron.objects.VersionedItem;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A FreeLandModel keeps the land of every stakeholder that is free from buildings.
+ * When the buildings or lands are reloaded, only the area around the changed items
+ * is computed again. As long as nothing changed, the free land is returned directly.
+ * The free land of different stakeholders can be computed at the same time.
+ */
+public class FreeLandModel {
+  private final Map<Integer, FreeLand> models;
+  private final AtomicLong hits;
+  private final AtomicLong updates;
+  private final AtomicLong computations;
+
+  /**
+   * Creates an empty model.
+   */
+  public FreeLandModel() {
+    models = new HashMap<>();
+    hits = new AtomicLong();
+    updates = new AtomicLong();
+    computations = new AtomicLong();
+  }
+
+  /**
+   * Get the land of a stakeholder that is free from buildings.
+   * @param stakeholder the stakeholder
+   * @param lands the loaded lands
+   * @param buildings the loaded buildings
+   * @return the free land
+   */
+  public Polygon getFreeLand(Stakeholder stakeholder, LandMap lands, BuildingList buildings) {
+    FreeLand model;
+    synchronized (models) {
+      model = models.get(stakeholder.getId());
+      if (model == null) {
+        model = new FreeLand();
+        models.put(stakeholder.getId(), model);
+      }
+    }
+    synchronized (model) {
+      return model.update(stakeholder.getOwnedLands(), lands, buildings);
+    }
+  }
+
+  /**
+   * Forgets the free land of all stakeholders.
+   */
+  public void clear() {
+    synchronized (models) {
+      models.clear();
+    }
+  }
+
+  /**
+   * Returns how many queries were answered without geometry operations.
+   * @return the amount of queries.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns how many queries only computed the area around changed items.
+   * @return the amount of queries.
+   */
+  public long getUpdates() {
+    return updates.get();
+  }
+
+  /**
+   * Returns how many queries computed the free land from scratch.
+   * @return the amount of queries.
+   */
+  public long getComputations() {
+    return computations.get();
+  }
+
+  /**
+   * Adds the polygons of the items that were added, removed or changed between two snapshots.
+   */
+  private static <T extends VersionedItem & SpatialItem> void addChanged(Map<Integer, T> previous,
+      Map<Integer, T> current, List<Polygon> changed) {
+    Set<Integer> ids = new HashSet<>(previous.keySet());
+    ids.addAll(current.keySet());
+    for (Integer id : ids) {
+      T before = previous.get(id);
+      T after = current.get(id);
+      if (before == null || after == null || before.getVersion() != after.getVersion()) {
+        if (before != null) {
+          changed.add(before.getPolygon());
+        }
+        if (after != null) {
+          changed.add(after.getPolygon());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the union of the active buildings near an area.
+   */
+  private static Polygon occupied(BuildingList buildings, Polygon area) {
+    List<Polygon> polygons = new ArrayList<>();
+    for (Building building : buildings.getIndex().search(area)) {
+      if (!building.demolished()) {
+        polygons.add(building.getPolygon());
+      }
+    }
+    return PolygonUtil.polygonUnion(polygons);
+  }
+
+  /**
+   * The free land of a single stakeholder, with the snapshots it was computed from.
+   */
+  private class FreeLand {
+    private List<Integer> ownedIds;
+    private LandMap lands;
+    private BuildingList buildings;
+    private Map<Integer, Land> owned;
+    private Map<Integer, Building> active;
+    private Polygon ownedLand;
+    private Polygon free;
+
+    Polygon update(List<Integer> newOwnedIds, LandMap newLands, BuildingList newBuildings) {
+      if (free != null && newLands == lands && newBuildings == buildings && newOwnedIds.equals(ownedIds)) {
+        hits.incrementAndGet();
+        return free;
+      }
+
+      Map<Integer, Land> newOwned = new HashMap<>();
+      for (Integer landId : newOwnedIds) {
+        Land land = newLands.get(landId);
+        if (land != null) {
+          newOwned.put(landId, land);
+        }
+      }
+      Map<Integer, Building> newActive = new HashMap<>();
+      for (Building building : newBuildings) {
+        if (!building.demolished()) {
+          newActive.put(building.getId(), building);
+        }
+      }
+
+      if (free == null) {
+        ownedLand = PolygonUtil.polygonUnion(polygonsOf(newOwned));
+        free = PolygonUtil.polygonDifference(ownedLand, occupied(newBuildings, ownedLand));
+        computations.incrementAndGet();
+      } else {
+        List<Polygon> changed = new ArrayList<>();
+        addChanged(owned, newOwned, changed);
+        boolean landChanged = !changed.isEmpty();
+        if (newBuildings != buildings) {
+          addChanged(active, newActive, changed);
+        }
+        if (!changed.isEmpty()) {
+          if (landChanged) {
+            ownedLand = updateOwnedLand(newOwned);
+          }
+          // Compute the free land again, but only within the changed area.
+          Polygon region = PolygonUtil.polygonUnion(changed);
+          Polygon ownedRegion = PolygonUtil.polygonIntersection(ownedLand, region);
+          Polygon freeRegion = PolygonUtil.polygonDifference(ownedRegion, occupied(newBuildings, region));
+          List<Polygon> parts = new ArrayList<>();
+          parts.add(PolygonUtil.polygonDifference(free, region));
+          parts.add(freeRegion);
+          free = PolygonUtil.polygonUnion(parts);
+        }
+        updates.incrementAndGet();
+      }
+
+      ownedIds = new ArrayList<>(newOwnedIds);
+      lands = newLands;
+      buildings = newBuildings;
+      owned = newOwned;
+      active = newActive;
+      return free;
+    }
+
+    /**
+     * Removes the parcels that are no longer owned or changed from the owned land, and adds the
+     * new and changed parcels. The parcels of the map do not overlap, so the others are kept.
+     */
+    private Polygon updateOwnedLand(Map<Integer, Land> newOwned) {
+      List<Polygon> removed = new ArrayList<>();
+      for (Map.Entry<Integer, Land> entry : owned.entrySet()) {
+        Land after = newOwned.get(entry.getKey());
+        if (after == null || after.getVersion() != entry.getValue().getVersion()) {
+          removed.add(entry.getValue().getPolygon());
+        }
+      }
+      List<Polygon> parts = new ArrayList<>();
+      for (Map.Entry<Integer, Land> entry : newOwned.entrySet()) {
+        Land before = owned.get(entry.getKey());
+        if (before == null || before.getVersion() != entry.getValue().getVersion()) {
+          parts.add(entry.getValue().getPolygon());
+        }
+      }
+      parts.add(removed.isEmpty() ? ownedLand
+          : PolygonUtil.polygonDifference(ownedLand, PolygonUtil.polygonUnion(removed)));
+      return PolygonUtil.polygonUnion(parts);
+    }
+
+    private List<Polygon> polygonsOf(Map<Integer, Land> landMap) {
+      List<Polygon> polygons = new ArrayList<>();
+      for (Land land : landMap.values()) {
+        polygons.add(land.getPolygon());
+      }
+      return polygons;
+    }
+  }
+}
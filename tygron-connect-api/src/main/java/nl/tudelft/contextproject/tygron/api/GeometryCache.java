@@ -0,0 +1,199 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.Stakeholder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A GeometryCache remembers polygons derived from the loaded data, such as the land of a
+ * stakeholder. Results are stored per operation and stakeholder. The cache is emptied as soon
+ * as a different {@link LandMap} is loaded, and a result that was derived from the buildings is
+ * forgotten when a different {@link BuildingList} is loaded. When the cache is full, the least
+ * recently used result is removed.
+ */
+public class GeometryCache {
+  /**
+   * The default maximum amount of results.
+   */
+  public static final int DEFAULT_CAPACITY = 256;
+
+  private final Map<Key, Entry> entries;
+  private LandMap lands;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+
+  /**
+   * Creates a cache with the default capacity.
+   */
+  public GeometryCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a cache.
+   * @param capacity the maximum amount of results
+   */
+  public GeometryCache(final int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity should be at least 1, got " + capacity);
+    }
+    entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        if (size() > capacity) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the remembered result of an operation that only depends on the lands, or computes
+   * and remembers it. The computation runs without holding the lock of the cache.
+   * @param operation the name of the operation
+   * @param stakeholder the stakeholder the result belongs to
+   * @param newLands the loaded lands the result is derived from
+   * @param computation computes the result if it is not remembered
+   * @return the result
+   */
+  public Polygon get(String operation, Stakeholder stakeholder, LandMap newLands, Computation computation) {
+    return get(operation, stakeholder, newLands, null, computation);
+  }
+
+  /**
+   * Returns the remembered result of an operation, or computes and remembers it.
+   * The computation runs without holding the lock of the cache.
+   * @param operation the name of the operation
+   * @param stakeholder the stakeholder the result belongs to
+   * @param newLands the loaded lands the result is derived from
+   * @param newBuildings the loaded buildings the result is derived from, or null if it does not use them
+   * @param computation computes the result if it is not remembered
+   * @return the result
+   */
+  public Polygon get(String operation, Stakeholder stakeholder, LandMap newLands, BuildingList newBuildings,
+      Computation computation) {
+    Key key = new Key(operation, stakeholder.getId(), stakeholder.getOwnedLands());
+    synchronized (this) {
+      validate(newLands);
+      Entry entry = entries.get(key);
+      if (entry != null && entry.buildings != newBuildings) {
+        invalidations++;
+        entries.remove(key);
+        entry = null;
+      }
+      if (entry != null) {
+        hits++;
+        return entry.result;
+      }
+      misses++;
+    }
+    Polygon result = computation.compute();
+    synchronized (this) {
+      // Do not remember results of data that was replaced during the computation.
+      if (newLands == lands) {
+        entries.put(key, new Entry(result, newBuildings));
+      }
+    }
+    return result;
+  }
+
+  private void validate(LandMap newLands) {
+    if (newLands != lands) {
+      if (!entries.isEmpty()) {
+        invalidations++;
+        entries.clear();
+      }
+      lands = newLands;
+    }
+  }
+
+  /**
+   * Forgets all results.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    lands = null;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * Returns how often the results were forgotten because different data was loaded.
+   * @return the amount of invalidations
+   */
+  public synchronized long getInvalidations() {
+    return invalidations;
+  }
+
+  /**
+   * Computes a result that is not remembered yet.
+   */
+  public interface Computation {
+    Polygon compute();
+  }
+
+  private static class Entry {
+    private final Polygon result;
+    private final BuildingList buildings;
+
+    Entry(Polygon result, BuildingList buildings) {
+      this.result = result;
+      this.buildings = buildings;
+    }
+  }
+
+  private static class Key {
+    private final String operation;
+    private final int stakeholderId;
+    private final List<Integer> ownedLands;
+
+    Key(String operation, int stakeholderId, List<Integer> ownedLands) {
+      this.operation = operation;
+      this.stakeholderId = stakeholderId;
+      this.ownedLands = new ArrayList<>(ownedLands);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return stakeholderId == key.stakeholderId && operation.equals(key.operation)
+          && ownedLands.equals(key.ownedLands);
+    }
+
+    @Override
+    public int hashCode() {
+      return (operation.hashCode() * 31 + stakeholderId) * 31 + ownedLands.hashCode();
+    }
+  }
+}
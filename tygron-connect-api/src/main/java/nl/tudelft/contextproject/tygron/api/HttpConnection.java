@@ -31,15 +31,21 @@ public class HttpConnection {
   private static final String API_DELIMITER = "/";
   private static final String API_SLOTS = "slots/";
 
+  // Data is loaded in parallel, so allow more than the default two connections to the server.
+  private static final int MAX_CONNECTIONS = 20;
+
   /**
    * Creates a Tygron connection.
    */
   private HttpConnection() {
-    this.client = HttpClients.custom().build();
+    this.client = HttpClients.custom()
+        .setMaxConnPerRoute(MAX_CONNECTIONS)
+        .setMaxConnTotal(MAX_CONNECTIONS)
+        .build();
     this.handler = new BasicResponseHandler();
   }
 
-  private static HttpConnection instance;
+  private static volatile HttpConnection instance;
   private static Settings settings;
   private static HttpConnectionData data;
   
@@ -51,8 +57,13 @@ public class HttpConnection {
     data = newData;
   }  
 
+  /**
+   * Returns the session data used by the current thread.
+   * @return the data bound to this thread, or else the shared data
+   */
   public static HttpConnectionData getData() {
-    return data;
+    HttpConnectionData bound = HttpConnectionData.getBound();
+    return bound != null ? bound : data;
   }  
   
   /**
@@ -60,13 +71,20 @@ public class HttpConnection {
    * @return the http connection instance
    */
   public static HttpConnection getInstance() {
-    if (instance == null) {
-      if (settings == null) {
-        settings = new Settings();
+    HttpConnection connection = instance;
+    if (connection != null) {
+      return connection;
+    }
+    // Bootstrap steps ask at the same time, and every extra instance would leak its HttpClient.
+    synchronized (HttpConnection.class) {
+      if (instance == null) {
+        if (settings == null) {
+          settings = new Settings();
+        }
+        instance = new HttpConnection();
       }
-      instance = new HttpConnection();
+      return instance;
     }
-    return instance;
   }
 
   public <T> T execute(String eventName, CallType type, ResultHandler<T> resultHandler) {
@@ -146,7 +164,7 @@ public class HttpConnection {
     if (!isSession) {
       return API_URL_BASE + eventName + API_JSON_SUFFIX;
     } else {
-      return API_URL_BASE + API_SLOTS + data.getSessionId() + API_DELIMITER + eventName + API_JSON_SUFFIX;
+      return API_URL_BASE + API_SLOTS + getData().getSessionId() + API_DELIMITER + eventName + API_JSON_SUFFIX;
     }
   }
   
@@ -168,12 +186,13 @@ public class HttpConnection {
     request.setHeader("Content-Type", "application/json");
     request.setHeader("Authorization", "Basic " + getAuthString());
 
-    if (data != null && data.getServerToken() != null) {
-      request.setHeader("serverToken", data.getServerToken());
+    HttpConnectionData current = getData();
+    if (current != null && current.getServerToken() != null) {
+      request.setHeader("serverToken", current.getServerToken());
     }
     
-    if (data != null && data.getClientToken() != null) {
-      request.setHeader("clientToken", data.getClientToken());
+    if (current != null && current.getClientToken() != null) {
+      request.setHeader("clientToken", current.getClientToken());
     }
   }
 }
@@ -1,9 +1,18 @@
 package nl.tudelft.contextproject.tygron.api;
 
+import java.util.concurrent.Callable;
+
 /**
  * Encapsulates Session data.
+ *
+ * <p>Data can be bound to a thread, which makes the requests of that thread use it instead of
+ * the data set with {@link HttpConnection#setData(HttpConnectionData)}. This allows several
+ * sessions to be used in one JVM. Tasks created with {@link #propagate(Runnable)} run with
+ * the data that was bound when they were created.</p>
  */
 public class HttpConnectionData {
+  private static final ThreadLocal<HttpConnectionData> bound = new ThreadLocal<>();
+
   private String clientToken;
   private String serverToken;
   private int sessionId;
@@ -31,5 +40,74 @@ public class HttpConnectionData {
   public void setSessionId(int sessionId) {
     this.sessionId = sessionId;
   }
-  
+
+  /**
+   * Returns the data bound to the current thread.
+   * @return the data, or null if the thread uses the shared data
+   */
+  public static HttpConnectionData getBound() {
+    return bound.get();
+  }
+
+  /**
+   * Binds data to the current thread.
+   * @param data the data, or null to use the shared data again
+   * @return the data that was bound before, or null
+   */
+  public static HttpConnectionData bind(HttpConnectionData data) {
+    HttpConnectionData previous = bound.get();
+    if (data == null) {
+      bound.remove();
+    } else {
+      bound.set(data);
+    }
+    return previous;
+  }
+
+  /**
+   * Wraps a task so it runs with the data bound to the current thread, on whichever thread runs it.
+   * @param task the task
+   * @return the wrapped task, or the task itself if no data is bound
+   */
+  public static Runnable propagate(final Runnable task) {
+    final HttpConnectionData data = bound.get();
+    if (data == null) {
+      return task;
+    }
+    return new Runnable() {
+      @Override
+      public void run() {
+        HttpConnectionData previous = bind(data);
+        try {
+          task.run();
+        } finally {
+          bind(previous);
+        }
+      }
+    };
+  }
+
+  /**
+   * Wraps a task so it runs with the data bound to the current thread, on whichever thread runs it.
+   * @param task the task
+   * @param <T> the result type of the task
+   * @return the wrapped task, or the task itself if no data is bound
+   */
+  public static <T> Callable<T> propagate(final Callable<T> task) {
+    final HttpConnectionData data = bound.get();
+    if (data == null) {
+      return task;
+    }
+    return new Callable<T>() {
+      @Override
+      public T call() throws Exception {
+        HttpConnectionData previous = bind(data);
+        try {
+          return task.call();
+        } finally {
+          bind(previous);
+        }
+      }
+    };
+  }
 }
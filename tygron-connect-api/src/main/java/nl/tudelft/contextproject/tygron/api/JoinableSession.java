@@ -35,20 +35,30 @@ public class JoinableSession {
    * @return The copy of this session.
    */
   public Session join() {
-    logger.info("Joining session in slot " + this.getId());
-    JoinSessionRequest joinSessionRequest = new JoinSessionRequest(this.getId(), "VIEWER", "Tygron-API-Agent");
+    return join("");
+  }
+
+  /**
+   * Join this session again as the client that had the given token.
+   * @param rejoinToken The client token of the earlier connection, or an empty string to join as a new client.
+   * @return The copy of this session.
+   */
+  public Session join(String rejoinToken) {
+    logger.info("Joining session in slot " + this.getId() + (rejoinToken.isEmpty() ? "" : " as returning client"));
+    JoinSessionRequest joinSessionRequest = new JoinSessionRequest(this.getId(), "VIEWER", "",
+        "Tygron-API-Agent", rejoinToken);
 
     JSONObject data = HttpConnection.getInstance().execute("services/event/IOServicesEventType/JOIN_SESSION/",
             CallType.POST, new JsonObjectResultHandler(), joinSessionRequest);
     
     Session session = createSession(data);
 
-    // Set server token and session id in connection
-    HttpConnectionData httpdata = new HttpConnectionData();
-    httpdata.setServerToken(session.getServerToken());
-    httpdata.setClientToken(session.getClientToken());
-    httpdata.setSessionId(session.getId());
-    HttpConnection.setData(httpdata);
+    // Set server token and session id in connection, for this thread only if it uses its own session
+    if (HttpConnectionData.getBound() != null) {
+      HttpConnectionData.bind(session.getConnectionData());
+    } else {
+      HttpConnection.setData(session.getConnectionData());
+    }
     
     return session;
   }
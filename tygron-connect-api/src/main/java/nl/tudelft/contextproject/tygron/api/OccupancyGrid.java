@@ -0,0 +1,343 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.Point2D;
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.Building;
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.Land;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An OccupancyGrid is a raster of the map that stores the owner of every cell and whether a
+ * building stands on it. A cell belongs to a polygon if its center lies inside the polygon.
+ * Free area queries are answered from summed-area tables, so they take constant time.
+ * The grid is an approximation: candidates found with it should be checked against the
+ * exact polygons before they are used.
+ */
+public class OccupancyGrid {
+  /**
+   * The maximum amount of cells along one side of the map, when no cell size is given.
+   */
+  public static final int MAX_CELLS = 512;
+
+  private static final int NO_OWNER = -1;
+
+  private final double cellSize;
+  private final int size;
+  private final int[] owners;
+  private final short[] buildings;
+
+  // Summed-area tables of the free cells per owner, computed when needed
+  private final Map<Integer, int[]> freeTables;
+
+  private LandMap landSnapshot;
+  private BuildingList buildingSnapshot;
+  private Map<Integer, Land> lands;
+  private Map<Integer, Building> active;
+
+  /**
+   * Creates a grid with at most {@link #MAX_CELLS} cells along each side, and cells of at least 1.
+   * @param mapWidth the width of the map
+   */
+  public OccupancyGrid(double mapWidth) {
+    this(mapWidth, Math.max(1, mapWidth / MAX_CELLS));
+  }
+
+  /**
+   * Creates an empty grid.
+   * @param mapWidth the width of the map
+   * @param cellSize the width of a cell
+   */
+  public OccupancyGrid(double mapWidth, double cellSize) {
+    if (mapWidth <= 0 || cellSize <= 0) {
+      throw new IllegalArgumentException("Map width and cell size should be positive");
+    }
+    this.cellSize = cellSize;
+    this.size = (int) Math.ceil(mapWidth / cellSize);
+    owners = new int[size * size];
+    Arrays.fill(owners, NO_OWNER);
+    buildings = new short[size * size];
+    freeTables = new HashMap<>();
+    lands = new HashMap<>();
+    active = new HashMap<>();
+  }
+
+  /**
+   * Applies the changes between the previous and the given snapshots to the grid.
+   * Only the cells of added, removed or changed items are updated.
+   * @param newLands the loaded lands
+   * @param newBuildings the loaded buildings
+   */
+  public synchronized void update(LandMap newLands, BuildingList newBuildings) {
+    boolean changed = false;
+    if (newLands != landSnapshot) {
+      Map<Integer, Land> current = new HashMap<>(newLands);
+      for (Land land : lands.values()) {
+        Land after = current.get(land.getId());
+        if (after == null || after.getVersion() != land.getVersion()) {
+          setOwner(land.getPolygon(), land.getOwnerId(), NO_OWNER);
+          changed = true;
+        }
+      }
+      for (Land land : current.values()) {
+        Land before = lands.get(land.getId());
+        if (before == null || before.getVersion() != land.getVersion()) {
+          setOwner(land.getPolygon(), NO_OWNER, land.getOwnerId());
+          changed = true;
+        }
+      }
+      lands = current;
+      landSnapshot = newLands;
+    }
+    if (newBuildings != buildingSnapshot) {
+      Map<Integer, Building> current = new HashMap<>();
+      for (Building building : newBuildings) {
+        if (!building.demolished()) {
+          current.put(building.getId(), building);
+        }
+      }
+      for (Building building : active.values()) {
+        Building after = current.get(building.getId());
+        if (after == null || after.getVersion() != building.getVersion()) {
+          addBuilding(building.getPolygon(), -1);
+          changed = true;
+        }
+      }
+      for (Building building : current.values()) {
+        Building before = active.get(building.getId());
+        if (before == null || before.getVersion() != building.getVersion()) {
+          addBuilding(building.getPolygon(), 1);
+          changed = true;
+        }
+      }
+      active = current;
+      buildingSnapshot = newBuildings;
+    }
+    if (changed) {
+      freeTables.clear();
+    }
+  }
+
+  private void setOwner(Polygon polygon, final int from, final int to) {
+    rasterize(polygon, new CellVisitor() {
+      @Override
+      public void visit(int index) {
+        if (from == NO_OWNER || owners[index] == from) {
+          owners[index] = to;
+        }
+      }
+    });
+  }
+
+  private void addBuilding(Polygon polygon, final int delta) {
+    rasterize(polygon, new CellVisitor() {
+      @Override
+      public void visit(int index) {
+        buildings[index] += delta;
+      }
+    });
+  }
+
+  /**
+   * Visits all cells whose center lies inside the polygon, using an even-odd scanline per row.
+   */
+  private void rasterize(Polygon polygon, CellVisitor visitor) {
+    Envelope2D envelope = new Envelope2D();
+    polygon.queryEnvelope2D(envelope);
+    if (envelope.isEmpty()) {
+      return;
+    }
+    int firstRow = Math.max(0, firstCell(envelope.ymin));
+    int lastRow = Math.min(size, firstCell(envelope.ymax));
+    Point2D start = new Point2D();
+    Point2D end = new Point2D();
+    double[] crossings = new double[16];
+    for (int row = firstRow; row < lastRow; row++) {
+      double y = (row + 0.5) * cellSize;
+      int count = 0;
+      for (int path = 0; path < polygon.getPathCount(); path++) {
+        int first = polygon.getPathStart(path);
+        int last = polygon.getPathEnd(path) - 1;
+        for (int i = first; i <= last; i++) {
+          polygon.getXY(i, start);
+          polygon.getXY(i == last ? first : i + 1, end);
+          if ((start.y <= y && y < end.y) || (end.y <= y && y < start.y)) {
+            if (count == crossings.length) {
+              crossings = Arrays.copyOf(crossings, count * 2);
+            }
+            crossings[count++] = start.x + (y - start.y) * (end.x - start.x) / (end.y - start.y);
+          }
+        }
+      }
+      Arrays.sort(crossings, 0, count);
+      for (int i = 0; i + 1 < count; i += 2) {
+        int firstColumn = Math.max(0, firstCell(crossings[i]));
+        int lastColumn = Math.min(size, firstCell(crossings[i + 1]));
+        for (int column = firstColumn; column < lastColumn; column++) {
+          visitor.visit(row * size + column);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the first cell whose center is at or after the given coordinate.
+   */
+  private int firstCell(double coordinate) {
+    return (int) Math.ceil(coordinate / cellSize - 0.5);
+  }
+
+  /**
+   * Returns the summed-area table of the cells owned by the owner without buildings.
+   */
+  private int[] getFreeTable(int ownerId) {
+    int[] table = freeTables.get(ownerId);
+    if (table == null) {
+      int width = size + 1;
+      table = new int[width * width];
+      for (int row = 0; row < size; row++) {
+        int rowSum = 0;
+        for (int column = 0; column < size; column++) {
+          int index = row * size + column;
+          if (owners[index] == ownerId && buildings[index] == 0) {
+            rowSum++;
+          }
+          table[(row + 1) * width + column + 1] = table[row * width + column + 1] + rowSum;
+        }
+      }
+      freeTables.put(ownerId, table);
+    }
+    return table;
+  }
+
+  /**
+   * Counts the free cells in the rectangle of cells [firstColumn, lastColumn) x [firstRow, lastRow).
+   */
+  private int countFree(int[] table, int firstColumn, int firstRow, int lastColumn, int lastRow) {
+    int width = size + 1;
+    return table[lastRow * width + lastColumn] - table[firstRow * width + lastColumn]
+        - table[lastRow * width + firstColumn] + table[firstRow * width + firstColumn];
+  }
+
+  /**
+   * Returns the approximate area owned by the owner without buildings within an area.
+   * @param ownerId the id of the owner
+   * @param area the area to look in
+   * @return the free area
+   */
+  public synchronized double getFreeArea(int ownerId, Envelope2D area) {
+    int firstColumn = clamp(firstCell(area.xmin));
+    int lastColumn = clamp(firstCell(area.xmax));
+    int firstRow = clamp(firstCell(area.ymin));
+    int lastRow = clamp(firstCell(area.ymax));
+    if (firstColumn >= lastColumn || firstRow >= lastRow) {
+      return 0;
+    }
+    return countFree(getFreeTable(ownerId), firstColumn, firstRow, lastColumn, lastRow) * cellSize * cellSize;
+  }
+
+  /**
+   * Finds rectangles of the given size that are approximately free, from the bottom left of the map.
+   * @param ownerId the id of the owner
+   * @param width the width of the rectangle
+   * @param height the height of the rectangle
+   * @param max the maximum amount of rectangles to return
+   * @return the rectangles
+   */
+  public synchronized List<Envelope2D> findFreeSpots(int ownerId, double width, double height, int max) {
+    List<Envelope2D> result = new ArrayList<>();
+    int columns = Math.max(1, (int) Math.ceil(width / cellSize));
+    int rows = Math.max(1, (int) Math.ceil(height / cellSize));
+    int[] table = getFreeTable(ownerId);
+    if (countFree(table, 0, 0, size, size) < columns * rows) {
+      return result;
+    }
+    for (int row = 0; row + rows <= size && result.size() < max; row++) {
+      for (int column = 0; column + columns <= size && result.size() < max; column++) {
+        if (countFree(table, column, row, column + columns, row + rows) == columns * rows) {
+          double x = column * cellSize;
+          double y = row * cellSize;
+          result.add(new Envelope2D(x, y, x + width, y + height));
+          // Continue after this spot, so the candidates do not overlap.
+          column += columns - 1;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds a rectangle of the given size that lies exactly within the free land. The grid is
+   * used to find candidates, and only the candidates are checked against the polygon.
+   * @param ownerId the id of the owner
+   * @param width the width of the rectangle
+   * @param height the height of the rectangle
+   * @param freeLand the exact free land of the owner
+   * @return the rectangle, or null if none of the candidates fits
+   */
+  public Polygon findFreeSpot(int ownerId, double width, double height, Polygon freeLand) {
+    for (Envelope2D spot : findFreeSpots(ownerId, width, height, MAX_CELLS)) {
+      Polygon rectangle = PolygonUtil.makeRectangle(spot.xmin, spot.ymin, spot.xmax, spot.ymax);
+      if (PolygonUtil.polygonContains(freeLand, rectangle)) {
+        return rectangle;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the owner of the cell at a location.
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @return the id of the owner, or -1 if the cell has no owner or lies outside the map
+   */
+  public synchronized int getOwner(double x, double y) {
+    int index = indexOf(x, y);
+    return index < 0 ? NO_OWNER : owners[index];
+  }
+
+  /**
+   * Returns whether a building stands on the cell at a location.
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @return whether the cell is occupied
+   */
+  public synchronized boolean isOccupied(double x, double y) {
+    int index = indexOf(x, y);
+    return index >= 0 && buildings[index] > 0;
+  }
+
+  private int indexOf(double x, double y) {
+    int column = (int) Math.floor(x / cellSize);
+    int row = (int) Math.floor(y / cellSize);
+    if (column < 0 || row < 0 || column >= size || row >= size) {
+      return -1;
+    }
+    return row * size + column;
+  }
+
+  private int clamp(int cell) {
+    return Math.max(0, Math.min(size, cell));
+  }
+
+  public double getCellSize() {
+    return cellSize;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  private interface CellVisitor {
+    void visit(int index);
+  }
+}
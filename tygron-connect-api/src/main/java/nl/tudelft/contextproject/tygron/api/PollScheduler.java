@@ -0,0 +1,319 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import nl.tudelft.contextproject.util.TaskUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PollScheduler runs the periodic updates of many environments on a small, shared pool of threads.
+ * Instead of one sleeping thread per environment, every environment registers a {@link Poll} which is
+ * executed with a fixed delay between runs. A separate pool of workers is available to run the
+ * requests of a single update in parallel. Tasks run with the session data that was bound to
+ * the thread that scheduled them.
+ */
+public class PollScheduler {
+  private static final Logger logger = LoggerFactory.getLogger(PollScheduler.class);
+
+  /**
+   * The default amount of threads used to run polls.
+   */
+  public static final int DEFAULT_POOL_SIZE = 4;
+
+  /**
+   * The default amount of threads used to run requests in parallel.
+   */
+  public static final int DEFAULT_WORKER_POOL_SIZE = 8;
+
+  private static PollScheduler instance;
+
+  private final ScheduledThreadPoolExecutor executor;
+  private final ExecutorService workers;
+
+  /**
+   * Creates a scheduler with a bounded amount of daemon threads.
+   * @param poolSize the maximum amount of polls that can run at the same time
+   */
+  public PollScheduler(int poolSize) {
+    this(poolSize, DEFAULT_WORKER_POOL_SIZE);
+  }
+
+  /**
+   * Creates a scheduler with a bounded amount of daemon threads.
+   * @param poolSize the maximum amount of polls that can run at the same time
+   * @param workerPoolSize the maximum amount of requests that can run in parallel
+   */
+  public PollScheduler(int poolSize, int workerPoolSize) {
+    this(poolSize, workerPoolSize, new DaemonThreadFactory("tygron-poller"),
+        new DaemonThreadFactory("tygron-worker"));
+  }
+
+  /**
+   * Creates a scheduler with a bounded amount of threads created by the given factory.
+   * This allows hosts to supply their own (for example lightweight) threads.
+   * @param poolSize the maximum amount of polls that can run at the same time
+   * @param workerPoolSize the maximum amount of requests that can run in parallel
+   * @param threadFactory the factory used to create the poll threads
+   * @param workerFactory the factory used to create the worker threads
+   */
+  public PollScheduler(int poolSize, int workerPoolSize, ThreadFactory threadFactory,
+      ThreadFactory workerFactory) {
+    if (poolSize < 1 || workerPoolSize < 1) {
+      throw new IllegalArgumentException("Pool sizes should be at least 1, got " + poolSize
+          + " and " + workerPoolSize);
+    }
+    // Workers are separate from the poll threads, so a poll waiting on its workers can never deadlock.
+    workers = Executors.newFixedThreadPool(workerPoolSize, workerFactory);
+    executor = new ScheduledThreadPoolExecutor(poolSize, threadFactory);
+    executor.setRemoveOnCancelPolicy(true);
+    executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+  }
+
+  /**
+   * Return the scheduler shared by all environments in this JVM.
+   * @return the shared scheduler
+   */
+  public static synchronized PollScheduler getInstance() {
+    if (instance == null) {
+      instance = new PollScheduler(DEFAULT_POOL_SIZE);
+    }
+    return instance;
+  }
+
+  /**
+   * Replaces the shared scheduler, for example to change the pool size. Polls that are
+   * already registered keep running on the previous scheduler.
+   * @param scheduler the new shared scheduler
+   */
+  public static synchronized void setInstance(PollScheduler scheduler) {
+    instance = scheduler;
+  }
+
+  /**
+   * Runs a task repeatedly, waiting the given interval between the end of a run and the start of the next.
+   * @param name a name used when logging about this poll
+   * @param task the task to run
+   * @param intervalMillis the delay between two runs in milliseconds
+   * @return a handle that can be used to stop the poll and inspect its statistics
+   */
+  public Poll schedule(String name, Runnable task, long intervalMillis) {
+    Poll poll = new Poll(name, HttpConnectionData.propagate(task), intervalMillis);
+    poll.setFuture(executor.scheduleWithFixedDelay(poll, 0, intervalMillis, TimeUnit.MILLISECONDS));
+    logger.debug("Scheduled poll " + name + " every " + intervalMillis + "ms");
+    return poll;
+  }
+
+  /**
+   * Runs a task once after the given delay.
+   * @param task the task to run
+   * @param delayMillis the delay in milliseconds
+   * @return the future of the task
+   */
+  public ScheduledFuture<?> scheduleOnce(Runnable task, long delayMillis) {
+    return executor.schedule(HttpConnectionData.propagate(task), delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Return the executor backing this scheduler.
+   * @return the executor
+   */
+  public ScheduledExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Runs a task once on the workers, without waiting for it. The task should not wait for other worker tasks.
+   * @param task the task to run
+   * @return the future of the task
+   */
+  public Future<?> submit(Runnable task) {
+    return workers.submit(HttpConnectionData.propagate(task));
+  }
+
+  /**
+   * Runs all tasks in parallel on the workers and waits until they are all finished.
+   * @param tasks the tasks to run
+   * @param <T> the result type of the tasks
+   * @return the results of the tasks, in the same order
+   */
+  public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    List<Callable<T>> bound = new ArrayList<>();
+    for (Callable<T> task : tasks) {
+      bound.add(HttpConnectionData.propagate(task));
+    }
+    return TaskUtil.invokeAll(workers, bound);
+  }
+
+  /**
+   * Stops all polls and workers of this scheduler.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  /**
+   * A Poll is a single task registered with the scheduler. It keeps track of how long its runs take
+   * and how late they start compared to their planned start.
+   */
+  public static class Poll implements Runnable {
+    private final String name;
+    private final Runnable task;
+    private final long intervalMillis;
+    // Set after scheduling, so a run or another thread may cancel before it is known
+    private volatile ScheduledFuture<?> future;
+    private volatile boolean cancelled;
+
+    private long expectedStart;
+    private long runs;
+    private long failures;
+    private long lastDuration;
+    private long totalDuration;
+    private long lastLag;
+    private long maxLag;
+
+    Poll(String name, Runnable task, long intervalMillis) {
+      this.name = name;
+      this.task = task;
+      this.intervalMillis = intervalMillis;
+      this.expectedStart = System.currentTimeMillis();
+    }
+
+    @Override
+    public void run() {
+      long start = System.currentTimeMillis();
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        // An exception would cancel all future runs, so log it and try again next time.
+        logger.error("Poll " + name + " failed", e);
+        synchronized (this) {
+          failures++;
+        }
+      }
+      long end = System.currentTimeMillis();
+      synchronized (this) {
+        runs++;
+        lastLag = Math.max(0, start - expectedStart);
+        maxLag = Math.max(maxLag, lastLag);
+        lastDuration = end - start;
+        totalDuration += lastDuration;
+        expectedStart = end + intervalMillis;
+      }
+    }
+
+    /**
+     * Stops this poll. A run that is in progress will be finished.
+     */
+    public void cancel() {
+      cancelled = true;
+      ScheduledFuture<?> current = future;
+      if (current != null) {
+        current.cancel(false);
+      }
+    }
+
+    private void setFuture(ScheduledFuture<?> scheduled) {
+      future = scheduled;
+      if (cancelled) {
+        scheduled.cancel(false);
+      }
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getIntervalMillis() {
+      return intervalMillis;
+    }
+
+    public synchronized long getRuns() {
+      return runs;
+    }
+
+    public synchronized long getFailures() {
+      return failures;
+    }
+
+    /**
+     * Get the duration of the last run.
+     * @return the duration in milliseconds
+     */
+    public synchronized long getLastDuration() {
+      return lastDuration;
+    }
+
+    /**
+     * Get the average duration of all runs.
+     * @return the average duration in milliseconds
+     */
+    public synchronized double getAverageDuration() {
+      return runs == 0 ? 0 : (double) totalDuration / runs;
+    }
+
+    /**
+     * Get how late the last run started compared to its planned start.
+     * @return the lag in milliseconds
+     */
+    public synchronized long getLastLag() {
+      return lastLag;
+    }
+
+    /**
+     * Get the highest lag of all runs.
+     * @return the lag in milliseconds
+     */
+    public synchronized long getMaxLag() {
+      return maxLag;
+    }
+
+    @Override
+    public synchronized String toString() {
+      return "Poll " + name + " (runs: " + runs + ", failures: " + failures + ", last: " + lastDuration
+          + "ms, lag: " + lastLag + "ms, max lag: " + maxLag + "ms)";
+    }
+  }
+
+  /**
+   * Creates named daemon threads, so polls never keep the JVM alive.
+   */
+  public static class DaemonThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+    private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+    /**
+     * Creates a factory for threads named after the prefix.
+     * @param prefix the start of the thread names
+     */
+    public DaemonThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = defaultFactory.newThread(runnable);
+      thread.setName(prefix + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import nl.tudelft.contextproject.tygron.api.loaders.ServerWordsLoader;
+import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
+import nl.tudelft.contextproject.tygron.objects.ServerWords;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A ServerWordsStore keeps the server words of a project. Only the words that are asked for
+ * are loaded, one request per word, and every word is loaded only once. The sessions of a
+ * project share a store through the {@link nl.tudelft.contextproject.tygron.api.loaders.SharedDataCache}.
+ */
+public class ServerWordsStore {
+  private static final Logger logger = LoggerFactory.getLogger(ServerWordsStore.class);
+
+  /**
+   * The amount of missing words above which the whole list is loaded at once.
+   */
+  public static final int FULL_LIST_THRESHOLD = 32;
+
+  // The loads of single words and of the whole list, guarded by this store. The loads
+  // themselves run outside the lock, other sessions asking for the same words wait for them.
+  private final Map<Integer, FutureTask<String>> words;
+  private FutureTask<ServerWords> fullList;
+
+  public ServerWordsStore() {
+    words = new HashMap<>();
+  }
+
+  /**
+   * Returns the translations of the given server words, loading the ones that are missing.
+   * @param ids the ids of the server words
+   * @return the translations mapped by id
+   * @throws RuntimeException if some of the words could not be loaded
+   */
+  public ServerWords getWords(Collection<Integer> ids) {
+    List<FutureTask<String>> started = new ArrayList<>();
+    FutureTask<ServerWords> startedFullList = null;
+    synchronized (this) {
+      Set<Integer> missing = new HashSet<>();
+      for (Integer id : ids) {
+        if (!words.containsKey(id)) {
+          missing.add(id);
+        }
+      }
+      if (fullList == null && missing.size() > FULL_LIST_THRESHOLD) {
+        fullList = new FutureTask<>(new Callable<ServerWords>() {
+          @Override
+          public ServerWords call() {
+            return loadAll();
+          }
+        });
+        startedFullList = fullList;
+      } else if (fullList == null) {
+        for (Integer id : missing) {
+          FutureTask<String> task = new FutureTask<>(loadTask(id));
+          words.put(id, task);
+          started.add(task);
+        }
+      }
+    }
+    if (startedFullList != null) {
+      startedFullList.run();
+    } else if (!started.isEmpty()) {
+      run(started);
+    }
+
+    ServerWords result = new ServerWords();
+    List<Integer> failed = new ArrayList<>();
+    for (Integer id : ids) {
+      String word = await(id);
+      if (word == null) {
+        failed.add(id);
+      } else {
+        result.put(id, word);
+      }
+    }
+    if (!failed.isEmpty()) {
+      throw new RuntimeException("Could not load server words " + failed);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the translation of a single server word, loading it if it is missing.
+   * @param id the id of the server word
+   * @return the translation
+   * @throws RuntimeException if the word could not be loaded
+   */
+  public String get(int id) {
+    List<Integer> ids = new ArrayList<>();
+    ids.add(id);
+    return getWords(ids).get(id);
+  }
+
+  private String await(Integer id) {
+    FutureTask<String> task;
+    FutureTask<ServerWords> all;
+    synchronized (this) {
+      task = words.get(id);
+      all = fullList;
+    }
+    if (task != null) {
+      String word = result(task);
+      if (word == null) {
+        // Forget the failed load, so the word is asked for again next time.
+        synchronized (this) {
+          if (words.get(id) == task) {
+            words.remove(id);
+          }
+        }
+      }
+      return word;
+    }
+    if (all != null) {
+      ServerWords allWords = result(all);
+      if (allWords == null) {
+        synchronized (this) {
+          if (fullList == all) {
+            fullList = null;
+          }
+        }
+        return null;
+      }
+      return allWords.get(id);
+    }
+    return null;
+  }
+
+  private Callable<String> loadTask(final Integer id) {
+    return new Callable<String>() {
+      @Override
+      public String call() {
+        JSONObject word = HttpConnection.getInstance().execute("lists/serverwords/" + id + "/",
+            CallType.GET, new JsonObjectResultHandler(), true);
+        if (word == null) {
+          return null;
+        }
+        ServerWords parsed = new ServerWords();
+        parsed.add(word);
+        return parsed.get(id);
+      }
+    };
+  }
+
+  private void run(List<FutureTask<String>> tasks) {
+    logger.debug("Loading " + tasks.size() + " server words");
+    List<Callable<Object>> calls = new ArrayList<>();
+    for (final FutureTask<String> task : tasks) {
+      calls.add(new Callable<Object>() {
+        @Override
+        public Object call() {
+          task.run();
+          return null;
+        }
+      });
+    }
+    PollScheduler.getInstance().invokeAll(calls);
+  }
+
+  private ServerWords loadAll() {
+    return new ServerWordsLoader().reload();
+  }
+
+  private static <T> T result(FutureTask<T> task) {
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading server words", e);
+    } catch (ExecutionException e) {
+      logger.warn("Could not load server words", e.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Returns the amount of server words that are loaded.
+   * @return the amount of words
+   */
+  public synchronized int size() {
+    Set<Integer> ids = new HashSet<>();
+    if (fullList != null && fullList.isDone() && result(fullList) != null) {
+      ids.addAll(result(fullList).keySet());
+    }
+    for (Map.Entry<Integer, FutureTask<String>> entry : words.entrySet()) {
+      if (entry.getValue().isDone() && result(entry.getValue()) != null) {
+        ids.add(entry.getKey());
+      }
+    }
+    return ids.size();
+  }
+}
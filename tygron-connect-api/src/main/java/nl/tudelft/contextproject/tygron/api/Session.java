@@ -7,6 +7,7 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,6 +28,9 @@ public class Session {
   private String serverToken;
   private List<String> compatibleOperations;
   private int id;
+  private PollScheduler.Poll statePoll;
+  private final Object stateLock = new Object();
+  private HttpConnectionData connectionData;
 
   /**
    * Tygron Session Object.
@@ -58,6 +62,11 @@ public class Session {
       compatibleOperations.add(jsonArray.get(i).toString());
     }
 
+    connectionData = new HttpConnectionData();
+    connectionData.setServerToken(serverToken);
+    connectionData.setClientToken(clientToken);
+    connectionData.setSessionId(id);
+
     environment = new Environment();
   }
 
@@ -72,6 +81,9 @@ public class Session {
   public boolean closeSession(boolean keepAlive) {
     logger.info("Closing session #" + this.id + " with clientToken " + this.clientToken + " (keepalive: " + keepAlive
         + ")");
+    environment.stop();
+    environment.leaveWorld();
+    stopPersistingState();
     CloseSessionRequest closeSessionRequest = new CloseSessionRequest(this, keepAlive);
     boolean apiReturnValue = HttpConnection.getInstance().execute("services/event/IOServicesEventType/CLOSE_SESSION/",
             CallType.POST, new BooleanResultHandler(), closeSessionRequest);
@@ -88,6 +100,11 @@ public class Session {
    * @return whether the kill was successful or not.
    */
   public boolean killSession(int slotId) {
+    if (slotId == id) {
+      environment.stop();
+      environment.leaveWorld();
+      stopPersistingState();
+    }
     KillSessionRequest killSessionRequest = new KillSessionRequest(slotId);
     boolean apiCallResult = HttpConnection.getInstance().execute("services/event/IOServicesEventType/KILL_SESSION/",
             CallType.POST, new BooleanResultHandler(), killSessionRequest);
@@ -102,6 +119,52 @@ public class Session {
     }
   }
 
+  /**
+   * Writes the state of this session to a file now, after every update and every time popups
+   * were answered, so the session can be rejoined after a restart.
+   * @param stateFile The file to write to.
+   */
+  public synchronized void persistState(final File stateFile) {
+    stopPersistingState();
+    saveState(stateFile);
+    Runnable save = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          saveState(stateFile);
+        } catch (RuntimeException e) {
+          logger.warn("Could not save the state of session " + id, e);
+        }
+      }
+    };
+    environment.setPopUpListener(save);
+    statePoll = PollScheduler.getInstance().schedule("session-state-" + id, save, Environment.POLL_INTERVAL);
+  }
+
+  private synchronized void stopPersistingState() {
+    if (statePoll != null) {
+      environment.setPopUpListener(null);
+      statePoll.cancel();
+      statePoll = null;
+    }
+  }
+
+  private void saveState(File stateFile) {
+    // The poll and the popup listener write the same file.
+    synchronized (stateLock) {
+      SessionState.of(this).save(stateFile);
+    }
+  }
+
+  /**
+   * Returns the data requests need to address this session. Threads that use several
+   * sessions should bind it with {@link HttpConnectionData#bind(HttpConnectionData)}.
+   * @return the connection data, or null if this session was not joined
+   */
+  public HttpConnectionData getConnectionData() {
+    return connectionData;
+  }
+
   /**
    * Set a new session name.
    *
@@ -1,5 +1,6 @@
 package nl.tudelft.contextproject.tygron.api;
 
+import nl.tudelft.contextproject.tygron.handlers.BooleanResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.IntegerResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.JsonArrayResultHandler;
 
@@ -8,8 +9,11 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * SessionManager is responsible for listing sessions that are joinable.
@@ -17,6 +21,9 @@ import java.util.List;
 public class SessionManager {
   private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
 
+  // The pools that new sessions are taken from, by map name
+  private final Map<String, SessionPool> pools = new ConcurrentHashMap<>();
+
   /**
    * Return a list of joinable tygron sessions.
    *
@@ -49,6 +56,20 @@ public class SessionManager {
    * @return a session
    */
   public Session createOrFindSessionAndJoin(String mapName, int preferedSlot) {
+    // Join / startup the session
+    Session sess = findOrCreateSession(mapName, preferedSlot).join();
+    sess.getEnvironment().start();
+    return sess;
+  }
+
+  /**
+   * Return a joinable session on the preferred slot or map. If it does not exist yet, start a session.
+   *
+   * @param mapName The mapname you are trying to join.
+   * @param preferedSlot the preferred slot
+   * @return a session that can be joined
+   */
+  public JoinableSession findOrCreateSession(String mapName, int preferedSlot) {
     logger.info("Create or find a session with name: " + mapName);
 
     JoinableSession session = null;
@@ -74,9 +95,10 @@ public class SessionManager {
       }
     }
 
-    // else create a new session
+    // else create a new session, or take one that was started already
     if (session == null) {
-      int slot = startSessionSlot(mapName);
+      SessionPool pool = pools.get(mapName);
+      int slot = pool != null && pool.isRunning() ? pool.take() : startSessionSlot(mapName);
       session = new JoinableSession();
       session.setId(slot);
     }
@@ -86,11 +108,70 @@ public class SessionManager {
       logger.info("Could not create or join session. Do you have access to the selected map?");
       throw new RuntimeException();
     }
+    return session;
+  }
 
-    // Join / startup the session
-    Session sess = session.join();
-    sess.getEnvironment().start();
-    return sess;
+  /**
+   * Rejoins the session described by a state file as the same client. If there is no state,
+   * or the session cannot be rejoined, a session is found or created as usual. While the
+   * session is open, its state is written to the file after every update.
+   *
+   * @param mapName The mapname you are trying to join.
+   * @param stateFile The file that keeps the session state.
+   * @return a session
+   */
+  public Session rejoinOrCreate(String mapName, File stateFile) {
+    return rejoinOrCreate(mapName, -1, stateFile);
+  }
+
+  /**
+   * Rejoins the session described by a state file as the same client. If there is no state,
+   * or the session cannot be rejoined, a session is found or created on the preferred slot.
+   *
+   * @param mapName The mapname you are trying to join.
+   * @param preferedSlot the preferred slot, or -1
+   * @param stateFile The file that keeps the session state.
+   * @return a session
+   */
+  public Session rejoinOrCreate(String mapName, int preferedSlot, File stateFile) {
+    Session session = null;
+    SessionState state = SessionState.load(stateFile);
+    if (state != null && mapName.equals(state.getMapName())) {
+      try {
+        JoinableSession joinable = new JoinableSession();
+        joinable.setId(state.getSlotId());
+        joinable.setName(mapName);
+        session = joinable.join(state.getClientToken());
+        session.getEnvironment().resumePopUps(state.getPopUpVersion());
+        session.getEnvironment().start();
+        logger.info("Rejoined session in slot " + state.getSlotId());
+      } catch (RuntimeException e) {
+        logger.warn("Could not rejoin session in slot " + state.getSlotId(), e);
+        session = null;
+      }
+    }
+    if (session == null) {
+      session = createOrFindSessionAndJoin(mapName, preferedSlot);
+    }
+    session.persistState(stateFile);
+    return session;
+  }
+
+  /**
+   * Creates a pool that keeps sessions of a map started, and starts filling it. Until the
+   * pool is shut down, new sessions of the map are taken from it.
+   * @param mapName the map of the sessions
+   * @param size the amount of sessions to keep started
+   * @return the pool
+   */
+  public SessionPool createSessionPool(String mapName, int size) {
+    SessionPool pool = new SessionPool(this, mapName, size);
+    SessionPool previous = pools.put(mapName, pool);
+    if (previous != null) {
+      previous.shutdown();
+    }
+    pool.start();
+    return pool;
   }
 
   /**
@@ -110,6 +191,18 @@ public class SessionManager {
     return slotNumber;
   }
 
+  /**
+   * Kill the session in a slot.
+   *
+   * @param slotId the slot of the session.
+   * @return whether the session was killed.
+   */
+  public boolean killSessionSlot(int slotId) {
+    logger.info("Killing session in slot: " + slotId);
+    return HttpConnection.getInstance().execute("services/event/IOServicesEventType/KILL_SESSION/",
+        CallType.POST, new BooleanResultHandler(), new Session.KillSessionRequest(slotId));
+  }
+
   static class StartSessionRequest extends JSONArray {
     public StartSessionRequest(String type, String mapName) {
       this.put(type);
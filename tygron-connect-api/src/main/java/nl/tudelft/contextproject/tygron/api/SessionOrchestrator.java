@@ -0,0 +1,188 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A SessionOrchestrator runs many sessions in one JVM, for example one per agent. Every session
+ * has its own connection data, so sessions in different slots do not overwrite each other's
+ * tokens. The data of a project that never changes is shared between its sessions, and the lists
+ * of a slot are shared between the sessions in that slot. Instead of a poll per session, all
+ * sessions are updated together in rounds by a single poll.
+ *
+ * <p>Threads that send requests for a session, such as the threads of its agent, should bind
+ * the connection data of that session with {@link HttpConnectionData#bind(HttpConnectionData)}.</p>
+ */
+public class SessionOrchestrator {
+  private static final Logger logger = LoggerFactory.getLogger(SessionOrchestrator.class);
+
+  /**
+   * The default amount of sessions that are updated at the same time.
+   */
+  public static final int DEFAULT_POOL_SIZE = 4;
+
+  private final SessionManager sessionManager;
+  private final PollScheduler scheduler;
+  private final ExecutorService updaters;
+  private final List<Session> sessions;
+  private PollScheduler.Poll poll;
+
+  /**
+   * Creates an orchestrator that updates its sessions on the shared poll scheduler.
+   */
+  public SessionOrchestrator() {
+    this(new SessionManager(), PollScheduler.getInstance(), DEFAULT_POOL_SIZE);
+  }
+
+  /**
+   * Creates an orchestrator.
+   * @param sessionManager the manager used to find and start sessions
+   * @param scheduler the scheduler that runs the update rounds
+   * @param poolSize the amount of sessions that are updated at the same time
+   */
+  public SessionOrchestrator(SessionManager sessionManager, PollScheduler scheduler, int poolSize) {
+    if (poolSize < 1) {
+      throw new IllegalArgumentException("Pool size should be at least 1, got " + poolSize);
+    }
+    this.sessionManager = sessionManager;
+    this.scheduler = scheduler;
+    // Sessions are updated on their own threads, because an update itself runs its requests on the workers.
+    this.updaters = Executors.newFixedThreadPool(poolSize, new PollScheduler.DaemonThreadFactory("tygron-session"));
+    this.sessions = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Joins a session of a map and adds it to the update rounds. The environment of the session
+   * is updated in steps by this orchestrator.
+   * @param mapName the name of the map
+   * @param slotId the preferred slot, or -1
+   * @return the joined session
+   */
+  public Session open(String mapName, int slotId) {
+    // Join with connection data of its own, so the shared connection data is left untouched.
+    Session session;
+    HttpConnectionData previous = HttpConnectionData.bind(new HttpConnectionData());
+    try {
+      session = sessionManager.findOrCreateSession(mapName, slotId).join();
+    } finally {
+      HttpConnectionData.bind(previous);
+    }
+    Environment environment = session.getEnvironment();
+    environment.setUpdateMode(Environment.UpdateMode.STEP);
+    environment.shareStaticData(session.getName());
+    // Agents in the same slot read the lists from a single poll.
+    environment.shareWorld(session.getConnectionData());
+    // Popups are answered between the update rounds, so other stakeholders do not wait for them.
+    previous = HttpConnectionData.bind(session.getConnectionData());
+    try {
+      environment.startPopUps(scheduler);
+    } finally {
+      HttpConnectionData.bind(previous);
+    }
+    sessions.add(session);
+    logger.info("Orchestrating session in slot " + session.getId() + ", " + sessions.size() + " sessions");
+    startPolling();
+    return session;
+  }
+
+  /**
+   * Removes a session from the update rounds and closes it.
+   * @param session the session
+   * @return whether the session was closed
+   */
+  public boolean close(Session session) {
+    if (!sessions.remove(session)) {
+      return false;
+    }
+    session.getEnvironment().releaseStaticData();
+    session.getEnvironment().leaveWorld();
+    HttpConnectionData previous = HttpConnectionData.bind(session.getConnectionData());
+    try {
+      return session.closeSession(false);
+    } finally {
+      HttpConnectionData.bind(previous);
+    }
+  }
+
+  /**
+   * Closes all sessions and stops the update rounds.
+   */
+  public void shutdown() {
+    for (Session session : sessions) {
+      try {
+        close(session);
+      } catch (RuntimeException e) {
+        logger.warn("Could not close session in slot " + session.getId(), e);
+      }
+    }
+    synchronized (this) {
+      if (poll != null) {
+        poll.cancel();
+        poll = null;
+      }
+    }
+    updaters.shutdownNow();
+  }
+
+  private synchronized void startPolling() {
+    if (poll == null) {
+      poll = scheduler.schedule("orchestrator-" + Integer.toHexString(System.identityHashCode(this)),
+          new Runnable() {
+            @Override
+            public void run() {
+              step();
+            }
+          }, Environment.POLL_INTERVAL);
+    }
+  }
+
+  /**
+   * Updates all sessions once, at most the pool size at the same time, and waits until they are done.
+   * A session that fails to update does not stop the others.
+   */
+  public void step() {
+    List<Callable<Object>> tasks = new ArrayList<>();
+    for (final Session session : sessions) {
+      tasks.add(new Callable<Object>() {
+        @Override
+        public Object call() {
+          HttpConnectionData previous = HttpConnectionData.bind(session.getConnectionData());
+          try {
+            session.getEnvironment().step();
+          } catch (RuntimeException e) {
+            logger.warn("Could not update session in slot " + session.getId(), e);
+          } finally {
+            HttpConnectionData.bind(previous);
+          }
+          return null;
+        }
+      });
+    }
+    try {
+      for (Future<Object> future : updaters.invokeAll(tasks)) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public List<Session> getSessions() {
+    return new ArrayList<>(sessions);
+  }
+
+  public synchronized PollScheduler.Poll getPoll() {
+    return poll;
+  }
+}
@@ -0,0 +1,298 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A SessionPool keeps a number of sessions of a map started, so an agent only has to join
+ * a session instead of waiting for the server to load the project. Slots that are handed
+ * out are replaced in the background, and when starting a session fails, it is tried again
+ * after a delay that doubles with every failure.
+ *
+ * <p>A pool is created with {@link SessionManager#createSessionPool(String, int)}. While it
+ * runs, that manager takes new sessions of the map from the pool, so a {@link Connector} or
+ * {@link Bootstrap} that uses the manager joins a started session. Sessions that are still
+ * in the pool when it shuts down are killed.</p>
+ *
+ * <p>The server may close started sessions that nobody joins for a long time, so a pool should
+ * be started shortly before the agents that use it.</p>
+ */
+public class SessionPool {
+  private static final Logger logger = LoggerFactory.getLogger(SessionPool.class);
+
+  /**
+   * The default time to wait before starting sessions again after a start failed, in milliseconds.
+   */
+  public static final long DEFAULT_RETRY_DELAY = 1000;
+
+  /**
+   * The longest time to wait before starting sessions again, in milliseconds.
+   */
+  public static final long MAX_RETRY_DELAY = 60000;
+
+  private final SessionManager sessionManager;
+  private final String mapName;
+  private final int size;
+  private final ExecutorService starter;
+
+  private final Deque<Integer> ready;
+  private int starting;
+  private boolean running;
+  private boolean closed;
+
+  // The delay before the next retry, which doubles with every failure until a start succeeds
+  private long initialRetryDelay;
+  private long retryDelay;
+  private boolean retryScheduled;
+
+  private long hits;
+  private long misses;
+  private long started;
+  private long failures;
+  private long totalStartTime;
+
+  /**
+   * Creates a pool that is not started yet.
+   * @param sessionManager the manager used to start sessions
+   * @param mapName the map of the sessions
+   * @param size the amount of sessions to keep started
+   */
+  public SessionPool(SessionManager sessionManager, String mapName, int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Pool size should be at least 1, got " + size);
+    }
+    this.sessionManager = sessionManager;
+    this.mapName = mapName;
+    this.size = size;
+    this.starter = Executors.newSingleThreadExecutor(new PollScheduler.DaemonThreadFactory("tygron-session-pool"));
+    this.ready = new ArrayDeque<>();
+    this.initialRetryDelay = DEFAULT_RETRY_DELAY;
+  }
+
+  /**
+   * Starts sessions in the background until the pool is full.
+   */
+  public synchronized void start() {
+    running = true;
+    refill();
+  }
+
+  /**
+   * Stops starting new sessions. Sessions that are started already stay in the pool.
+   */
+  public synchronized void stop() {
+    running = false;
+  }
+
+  /**
+   * Stops the pool and its thread, and kills the sessions that are still in the pool.
+   */
+  public void shutdown() {
+    List<Integer> slots;
+    synchronized (this) {
+      running = false;
+      closed = true;
+      slots = new ArrayList<>(ready);
+      ready.clear();
+    }
+    starter.shutdownNow();
+    for (int slot : slots) {
+      kill(slot);
+    }
+  }
+
+  public synchronized boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Sets the time to wait before starting sessions again after a start failed. The time
+   * doubles with every failure, up to {@link #MAX_RETRY_DELAY}.
+   * @param retryDelay the time in milliseconds
+   */
+  public synchronized void setRetryDelay(long retryDelay) {
+    this.initialRetryDelay = retryDelay;
+  }
+
+  /**
+   * Takes the slot of a started session from the pool. If no session is ready, one is started
+   * and this method waits for it.
+   * @return the slot of the session
+   */
+  public int take() {
+    Integer slot;
+    synchronized (this) {
+      slot = ready.poll();
+      if (slot != null) {
+        hits++;
+      } else {
+        misses++;
+      }
+      refill();
+    }
+    if (slot == null) {
+      slot = startSlot();
+      if (slot < 0) {
+        throw new RuntimeException("Could not start a session for " + mapName);
+      }
+    }
+    logger.info("Handing out session in slot " + slot + ". " + this);
+    return slot;
+  }
+
+  /**
+   * Takes a session from the pool, joins it and starts its environment.
+   * @return the joined session
+   */
+  public Session join() {
+    JoinableSession session = new JoinableSession();
+    session.setId(take());
+    session.setName(mapName);
+    Session joined = session.join();
+    joined.getEnvironment().start();
+    return joined;
+  }
+
+  /**
+   * Starts sessions in the background until the started and starting sessions fill the pool.
+   */
+  private void refill() {
+    while (running && !retryScheduled && ready.size() + starting < size) {
+      starting++;
+      starter.execute(new Runnable() {
+        @Override
+        public void run() {
+          int slot = startSlot();
+          boolean late;
+          synchronized (SessionPool.this) {
+            starting--;
+            late = slot >= 0 && closed;
+            if (slot >= 0 && !closed) {
+              ready.add(slot);
+              retryDelay = 0;
+            } else if (slot < 0) {
+              retryLater();
+            }
+          }
+          if (late) {
+            kill(slot);
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Refills the pool after the retry delay, which doubles every time.
+   */
+  private void retryLater() {
+    if (!running || retryScheduled) {
+      return;
+    }
+    retryDelay = retryDelay == 0 ? initialRetryDelay : Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+    retryScheduled = true;
+    logger.info("Starting sessions for " + mapName + " again in " + retryDelay + " ms");
+    PollScheduler.getInstance().scheduleOnce(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (SessionPool.this) {
+          retryScheduled = false;
+          refill();
+        }
+      }
+    }, retryDelay);
+  }
+
+  private void kill(int slot) {
+    try {
+      sessionManager.killSessionSlot(slot);
+    } catch (RuntimeException e) {
+      logger.warn("Could not kill the session in slot " + slot, e);
+    }
+  }
+
+  /**
+   * Starts a single session.
+   * @return the slot, or -1 if the session could not be started
+   */
+  private int startSlot() {
+    long start = System.currentTimeMillis();
+    int slot;
+    try {
+      slot = sessionManager.startSessionSlot(mapName);
+    } catch (RuntimeException e) {
+      logger.error("Could not start a session for " + mapName, e);
+      slot = -1;
+    }
+    synchronized (this) {
+      if (slot >= 0) {
+        started++;
+        totalStartTime += System.currentTimeMillis() - start;
+      } else {
+        failures++;
+      }
+    }
+    return slot;
+  }
+
+  public String getMapName() {
+    return mapName;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public synchronized int getReady() {
+    return ready.size();
+  }
+
+  public synchronized int getStarting() {
+    return starting;
+  }
+
+  /**
+   * Returns how many sessions were handed out without waiting.
+   * @return the amount of sessions
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * Returns how many sessions had to be started while the caller was waiting.
+   * @return the amount of sessions
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  public synchronized long getStarted() {
+    return started;
+  }
+
+  public synchronized long getFailures() {
+    return failures;
+  }
+
+  /**
+   * Returns the average time it took to start a session.
+   * @return the time in milliseconds, or 0 if no session was started
+   */
+  public synchronized double getAverageStartTime() {
+    return started == 0 ? 0 : (double) totalStartTime / started;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "SessionPool " + mapName + ": " + ready.size() + "/" + size + " ready, " + starting + " starting, "
+        + hits + " hits, " + misses + " misses, " + failures + " failures";
+  }
+}
@@ -0,0 +1,152 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Properties;
+
+/**
+ * A SessionState is what a client needs to rejoin a session after a restart: the slot, the
+ * tokens of the client and the version of the last popups it handled. It is stored as a
+ * properties file.
+ */
+public class SessionState {
+  private static final Logger logger = LoggerFactory.getLogger(SessionState.class);
+
+  private final int slotId;
+  private final String mapName;
+  private final String clientToken;
+  private final String serverToken;
+  private final int stakeholderId;
+  private final int popUpVersion;
+
+  /**
+   * Creates a state.
+   * @param slotId the slot of the session
+   * @param mapName the map of the session
+   * @param clientToken the token of the client, used to rejoin
+   * @param serverToken the token of the server
+   * @param stakeholderId the selected stakeholder, or -1
+   * @param popUpVersion the version of the last loaded popups
+   */
+  public SessionState(int slotId, String mapName, String clientToken, String serverToken, int stakeholderId,
+      int popUpVersion) {
+    this.slotId = slotId;
+    this.mapName = mapName;
+    this.clientToken = clientToken;
+    this.serverToken = serverToken;
+    this.stakeholderId = stakeholderId;
+    this.popUpVersion = popUpVersion;
+  }
+
+  /**
+   * Captures the current state of a session.
+   * @param session the session
+   * @return the state
+   */
+  public static SessionState of(Session session) {
+    Environment environment = session.getEnvironment();
+    return new SessionState(session.getId(), session.getName(), session.getClientToken(),
+        session.getServerToken(), environment.getStakeholderId(), environment.getPopUpVersion());
+  }
+
+  /**
+   * Reads a state from a file.
+   * @param file the file
+   * @return the state, or null if the file does not exist or cannot be read
+   */
+  public static SessionState load(File file) {
+    if (!file.isFile()) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (InputStream stream = new FileInputStream(file)) {
+      properties.load(stream);
+      return new SessionState(Integer.parseInt(properties.getProperty("slot")), properties.getProperty("map"),
+          properties.getProperty("clientToken"), properties.getProperty("serverToken"),
+          Integer.parseInt(properties.getProperty("stakeholder", "-1")),
+          Integer.parseInt(properties.getProperty("popUpVersion", "0")));
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Could not read session state from " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Writes this state to a file. The file is replaced at once, so a crash while writing
+   * leaves the previous state intact. It holds the tokens of the client, so only its owner
+   * may read it.
+   * @param file the file
+   */
+  public void save(File file) {
+    Properties properties = new Properties();
+    properties.setProperty("slot", Integer.toString(slotId));
+    properties.setProperty("map", mapName);
+    properties.setProperty("clientToken", clientToken);
+    properties.setProperty("serverToken", serverToken);
+    properties.setProperty("stakeholder", Integer.toString(stakeholderId));
+    properties.setProperty("popUpVersion", Integer.toString(popUpVersion));
+    Path temporary = Paths.get(file.getPath() + ".tmp");
+    try {
+      createOwnerOnly(temporary);
+      try (OutputStream stream = Files.newOutputStream(temporary)) {
+        properties.store(stream, "Tygron session state");
+      }
+      Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new RuntimeException("Could not write session state to " + file, e);
+    }
+  }
+
+  /**
+   * Creates an empty file that only its owner can read and write.
+   */
+  private static void createOwnerOnly(Path path) throws IOException {
+    Files.deleteIfExists(path);
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    } else {
+      File file = Files.createFile(path).toFile();
+      file.setReadable(false, false);
+      file.setWritable(false, false);
+      file.setReadable(true, true);
+      file.setWritable(true, true);
+    }
+  }
+
+  public int getSlotId() {
+    return slotId;
+  }
+
+  public String getMapName() {
+    return mapName;
+  }
+
+  public String getClientToken() {
+    return clientToken;
+  }
+
+  public String getServerToken() {
+    return serverToken;
+  }
+
+  public int getStakeholderId() {
+    return stakeholderId;
+  }
+
+  public int getPopUpVersion() {
+    return popUpVersion;
+  }
+}
@@ -0,0 +1,270 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import nl.tudelft.contextproject.tygron.api.loaders.Loader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * A SlotWorld loads the lists of a session slot once for all environments in this JVM that
+ * joined that slot, for example one agent per stakeholder. A single poll reloads every list,
+ * and all environments read the same snapshots. Data of a single stakeholder, like popups,
+ * is still loaded by every environment itself.
+ */
+public class SlotWorld {
+  private static final Logger logger = LoggerFactory.getLogger(SlotWorld.class);
+
+  private static final Map<Integer, SlotWorld> worlds = new HashMap<>();
+
+  private final int slotId;
+  private final Map<Class<?>, Loader<?>> loaders;
+  private final Map<Class<?>, Object> locks;
+  private PollScheduler.Poll poll;
+
+  // The connection data of every attached session, the world loads with one of them
+  private final List<HttpConnectionData> attached;
+  private volatile HttpConnectionData connectionData;
+
+  private SlotWorld(HttpConnectionData connectionData, Collection<Loader<?>> worldLoaders) {
+    this.slotId = connectionData.getSessionId();
+    this.connectionData = connectionData;
+    this.attached = new ArrayList<>();
+    this.loaders = new HashMap<>();
+    this.locks = new HashMap<>();
+    for (Loader<?> loader : worldLoaders) {
+      loaders.put(loader.getDataClass(), loader);
+      locks.put(loader.getDataClass(), new Object());
+    }
+  }
+
+  /**
+   * Adds a reference to the world of a slot, and starts the world if it did not exist yet.
+   * @param connectionData the connection data of a session in the slot
+   * @param worldLoaders the loaders of the lists, only used if the world does not exist yet
+   * @return the world of the slot
+   */
+  public static SlotWorld attach(HttpConnectionData connectionData, Collection<Loader<?>> worldLoaders) {
+    synchronized (worlds) {
+      SlotWorld world = worlds.get(connectionData.getSessionId());
+      if (world == null) {
+        world = new SlotWorld(connectionData, worldLoaders);
+        worlds.put(world.slotId, world);
+        world.start();
+      }
+      world.attached.add(connectionData);
+      logger.debug("Slot " + world.slotId + " world has " + world.attached.size() + " environments");
+      return world;
+    }
+  }
+
+  /**
+   * Removes a reference to this world. If the world loads with the connection data of the session
+   * that leaves, it continues with the data of a session that is still attached. The world stops
+   * with its last reference.
+   * @param sessionData the connection data the session attached with
+   */
+  public void detach(HttpConnectionData sessionData) {
+    synchronized (worlds) {
+      if (!removeAttached(sessionData)) {
+        return;
+      }
+      if (attached.isEmpty()) {
+        if (worlds.get(slotId) == this) {
+          worlds.remove(slotId);
+        }
+        poll.cancel();
+        logger.debug("Stopped slot " + slotId + " world");
+      } else if (connectionData == sessionData) {
+        connectionData = attached.get(0);
+        logger.debug("Slot " + slotId + " world continues with the connection of another session");
+      }
+    }
+  }
+
+  private boolean removeAttached(HttpConnectionData sessionData) {
+    for (int i = 0; i < attached.size(); i++) {
+      if (attached.get(i) == sessionData) {
+        attached.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the world of a slot.
+   * @param slotId the slot
+   * @return the world, or null if no environment shares the slot
+   */
+  public static SlotWorld get(int slotId) {
+    synchronized (worlds) {
+      return worlds.get(slotId);
+    }
+  }
+
+  private void start() {
+    // Every load binds the connection data of a session that is attached at that moment.
+    poll = PollScheduler.getInstance().schedule("world-" + slotId, new Runnable() {
+      @Override
+      public void run() {
+        refresh();
+      }
+    }, Environment.POLL_INTERVAL);
+  }
+
+  /**
+   * Reloads all lists of this slot in parallel.
+   */
+  public void refresh() {
+    List<Callable<Object>> tasks = new ArrayList<>();
+    for (final Class<?> dataClass : getDataClasses()) {
+      tasks.add(new Callable<Object>() {
+        @Override
+        public Object call() {
+          return reload(dataClass);
+        }
+      });
+    }
+    PollScheduler.getInstance().invokeAll(tasks);
+  }
+
+  /**
+   * Returns the latest snapshot of a list, loading it if it was not loaded yet.
+   * @param dataClass the class of the list
+   * @param <T> the type of the list
+   * @return the snapshot
+   */
+  public <T> T get(Class<T> dataClass) {
+    HttpConnectionData previous = HttpConnectionData.bind(connectionData);
+    try {
+      return getLoader(dataClass).get();
+    } finally {
+      HttpConnectionData.bind(previous);
+    }
+  }
+
+  /**
+   * Loads a list again. Environments that ask at the same time share a single request: if a load
+   * started after this call while waiting, its result is returned instead of loading again.
+   * @param dataClass the class of the list
+   * @param <T> the type of the list
+   * @return the new snapshot
+   */
+  public <T> T reload(Class<T> dataClass) {
+    long requested = System.nanoTime();
+    Loader<T> loader = getLoader(dataClass);
+    synchronized (locks.get(dataClass)) {
+      if (loader.getLoadStarted() - requested >= 0) {
+        return loader.get();
+      }
+      HttpConnectionData previous = HttpConnectionData.bind(connectionData);
+      try {
+        return loader.reload();
+      } finally {
+        HttpConnectionData.bind(previous);
+      }
+    }
+  }
+
+  /**
+   * Returns when the load of the latest snapshot of a list was started.
+   * @param dataClass the class of the list
+   * @return the start of the last load, or 0 if nothing was loaded yet
+   */
+  public long getLoadStarted(Class<?> dataClass) {
+    return getLoader(dataClass).getLoadStarted();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Loader<T> getLoader(Class<T> dataClass) {
+    Loader<T> loader = (Loader<T>) loaders.get(dataClass);
+    if (loader == null) {
+      throw new IllegalArgumentException("Slot " + slotId + " does not share " + dataClass.getSimpleName());
+    }
+    return loader;
+  }
+
+  public Set<Class<?>> getDataClasses() {
+    return loaders.keySet();
+  }
+
+  public int getSlotId() {
+    return slotId;
+  }
+
+  public int getReferences() {
+    synchronized (worlds) {
+      return attached.size();
+    }
+  }
+
+  /**
+   * Returns the connection data the world currently loads with.
+   * @return the connection data of an attached session
+   */
+  public HttpConnectionData getConnectionData() {
+    return connectionData;
+  }
+
+  public PollScheduler.Poll getPoll() {
+    return poll;
+  }
+
+  /**
+   * A SnapshotLoader lets an environment read a list of the world. The environment does not
+   * load it periodically, because the world does, but a reload after an action is forwarded.
+   * @param <T> the class that this loader provides.
+   */
+  public static class SnapshotLoader<T> extends Loader<T> {
+    private final SlotWorld world;
+    private final Class<T> dataClass;
+
+    public SnapshotLoader(SlotWorld world, Class<T> dataClass) {
+      this.world = world;
+      this.dataClass = dataClass;
+    }
+
+    @Override
+    protected T load() {
+      return world.reload(dataClass);
+    }
+
+    @Override
+    public T get() {
+      return world.get(dataClass);
+    }
+
+    // The snapshots are loaded by the world, so this loader itself may never have loaded.
+    @Override
+    public long getLoadStarted() {
+      return world.getLoadStarted(dataClass);
+    }
+
+    @Override
+    public Loader<T> newLoader() {
+      return new SnapshotLoader<>(world, dataClass);
+    }
+
+    @Override
+    public Class<T> getDataClass() {
+      return dataClass;
+    }
+
+    @Override
+    public RefreshInterval getRefreshInterval() {
+      return RefreshInterval.NEVER;
+    }
+
+    public SlotWorld getWorld() {
+      return world;
+    }
+  }
+}
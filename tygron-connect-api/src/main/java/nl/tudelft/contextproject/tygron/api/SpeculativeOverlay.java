@@ -0,0 +1,315 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.Building;
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.Land;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A SpeculativeOverlay keeps track of actions that were sent to the server but are not yet
+ * part of the loaded data. This allows an agent to plan several actions in a row without
+ * waiting for a reload. A change is removed as soon as data is loaded that was requested after
+ * the change was made, because that data is authoritative. Changes that are never confirmed
+ * are rolled back after a timeout.
+ */
+public class SpeculativeOverlay {
+  private static final Logger logger = LoggerFactory.getLogger(SpeculativeOverlay.class);
+
+  /**
+   * The default time after which unconfirmed changes are rolled back, in milliseconds.
+   */
+  public static final long DEFAULT_TIMEOUT = 3 * Environment.POLL_INTERVAL;
+
+  /**
+   * The state of buildings that only exist locally.
+   */
+  public static final String PROVISIONAL_STATE = "PROVISIONAL";
+
+  // Areas smaller than this are ignored when checking a change against the loaded data
+  private static final double MIN_AREA = 0.05;
+
+  private final long timeoutNanos;
+  private final List<Change> constructions;
+  private final List<Change> demolitions;
+  private final List<Change> purchases;
+  private int nextProvisionalId;
+  private long confirmed;
+  private long rolledBack;
+
+  public SpeculativeOverlay() {
+    this(DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Creates an empty overlay.
+   * @param timeoutMillis the time after which unconfirmed changes are rolled back
+   */
+  public SpeculativeOverlay(long timeoutMillis) {
+    this.timeoutNanos = timeoutMillis * 1000000L;
+    constructions = new ArrayList<>();
+    demolitions = new ArrayList<>();
+    purchases = new ArrayList<>();
+    nextProvisionalId = -1;
+  }
+
+  /**
+   * Adds a building that was requested but not yet loaded. Provisional buildings get
+   * negative ids, so they never collide with buildings of the server.
+   * @param functionId the function of the building
+   * @param floors the amount of floors of the building
+   * @param polygon the land the building is built on
+   * @return the provisional building
+   */
+  public synchronized Building addConstruction(int functionId, int floors, Polygon polygon) {
+    Building building = new Building(nextProvisionalId--, "Provisional building", functionId, polygon,
+        floors, PROVISIONAL_STATE);
+    constructions.add(new Change(polygon, building));
+    return building;
+  }
+
+  /**
+   * Marks the buildings on a piece of land as being demolished.
+   * @param polygon the land that is demolished
+   */
+  public synchronized void addDemolition(Polygon polygon) {
+    demolitions.add(new Change(polygon, null));
+  }
+
+  /**
+   * Adds a piece of land that was requested to be bought.
+   * @param polygon the land that is bought
+   */
+  public synchronized void addPurchase(Polygon polygon) {
+    purchases.add(new Change(polygon, null));
+  }
+
+  /**
+   * Removes the changes that are part of the loaded data or that timed out. A change only counts
+   * as confirmed if the loaded data shows its result.
+   * @param buildings the loaded buildings
+   * @param buildingsLoaded when the load of the buildings was started
+   * @param lands the loaded land
+   * @param landLoaded when the load of the land was started
+   * @param stakeholderId the stakeholder that made the changes
+   */
+  public synchronized void reconcile(BuildingList buildings, long buildingsLoaded, LandMap lands, long landLoaded,
+      int stakeholderId) {
+    long now = System.nanoTime();
+    Iterator<Change> iterator = constructions.iterator();
+    while (iterator.hasNext()) {
+      Change change = iterator.next();
+      if (change.isBefore(buildingsLoaded)) {
+        iterator.remove();
+        count(isBuilt(buildings, change.polygon), "construction");
+      } else if (change.isExpired(now)) {
+        iterator.remove();
+        count(false, "construction");
+      }
+    }
+    iterator = demolitions.iterator();
+    while (iterator.hasNext()) {
+      Change change = iterator.next();
+      if (change.isBefore(buildingsLoaded)) {
+        iterator.remove();
+        count(isCleared(buildings, change.polygon), "demolition");
+      } else if (change.isExpired(now)) {
+        iterator.remove();
+        count(false, "demolition");
+      }
+    }
+    iterator = purchases.iterator();
+    while (iterator.hasNext()) {
+      Change change = iterator.next();
+      if (change.isBefore(landLoaded)) {
+        iterator.remove();
+        count(isOwned(lands, stakeholderId, change.polygon), "purchase");
+      } else if (change.isExpired(now)) {
+        iterator.remove();
+        count(false, "purchase");
+      }
+    }
+  }
+
+  private void count(boolean isConfirmed, String description) {
+    if (isConfirmed) {
+      confirmed++;
+    } else {
+      rolledBack++;
+      logger.info("Rolled back provisional " + description);
+    }
+  }
+
+  private boolean isBuilt(BuildingList buildings, Polygon polygon) {
+    for (Building building : buildings) {
+      if (!building.demolished() && PolygonUtil.polygonIntersects(building.getPolygon(), polygon)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks that no building is left on demolished land.
+   */
+  private boolean isCleared(BuildingList buildings, Polygon polygon) {
+    for (Building building : buildings) {
+      if (!building.demolished()
+          && PolygonUtil.polygonIntersection(building.getPolygon(), polygon).calculateArea2D() > MIN_AREA) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks that bought land is owned by the stakeholder.
+   */
+  private boolean isOwned(LandMap lands, int stakeholderId, Polygon polygon) {
+    List<Polygon> owned = new ArrayList<>();
+    for (Land land : lands.values()) {
+      if (land.getOwnerId() == stakeholderId) {
+        owned.add(PolygonUtil.polygonIntersection(land.getPolygon(), polygon));
+      }
+    }
+    Polygon notOwned = PolygonUtil.polygonDifference(polygon, PolygonUtil.polygonUnion(owned));
+    return notOwned.calculateArea2D() <= MIN_AREA;
+  }
+
+  /**
+   * Returns the loaded buildings after the pending changes: provisional buildings are added and
+   * buildings on land that is being demolished are left out.
+   * @param buildings the loaded buildings
+   * @return the projected buildings
+   */
+  public synchronized BuildingList projectBuildings(BuildingList buildings) {
+    BuildingList projected = new BuildingList();
+    for (Building building : buildings) {
+      if (demolitions.isEmpty() || building.demolished() || !isDemolishing(building)) {
+        projected.add(building);
+      }
+    }
+    for (Change change : constructions) {
+      projected.add(change.building);
+    }
+    return projected;
+  }
+
+  /**
+   * Applies the pending changes to a piece of free land.
+   * @param land the free land according to the loaded data
+   * @param ownedLand all land that is owned according to the loaded data
+   * @param buildings the loaded buildings
+   * @return the free land after all pending changes are done
+   */
+  public synchronized Polygon projectAvailableLand(Polygon land, Polygon ownedLand, BuildingList buildings) {
+    List<Polygon> freed = new ArrayList<>();
+    freed.add(land);
+    for (Change change : purchases) {
+      // The buildings of the seller stay on the bought land.
+      freed.add(PolygonUtil.polygonDifference(change.polygon, occupied(buildings, change.polygon)));
+    }
+    for (Change change : demolitions) {
+      freed.add(PolygonUtil.polygonIntersection(change.polygon, ownedLand));
+    }
+    Polygon projected = PolygonUtil.polygonUnion(freed);
+    for (Change change : constructions) {
+      projected = PolygonUtil.polygonDifference(projected, change.polygon);
+    }
+    return projected;
+  }
+
+  /**
+   * Removes the land that is being bought from the free land of another stakeholder.
+   * @param land the free land of the other stakeholder according to the loaded data
+   * @return the land that can still be bought
+   */
+  public synchronized Polygon projectBuyableLand(Polygon land) {
+    Polygon projected = land;
+    for (Change change : purchases) {
+      projected = PolygonUtil.polygonDifference(projected, change.polygon);
+    }
+    return projected;
+  }
+
+  /**
+   * Returns the union of the buildings that stand on a piece of land.
+   */
+  private static Polygon occupied(BuildingList buildings, Polygon polygon) {
+    List<Polygon> polygons = new ArrayList<>();
+    for (Building building : buildings.getIndex().search(polygon)) {
+      if (!building.demolished()) {
+        polygons.add(building.getPolygon());
+      }
+    }
+    return PolygonUtil.polygonUnion(polygons);
+  }
+
+  /**
+   * Checks whether a building lies on land that is being demolished.
+   * @param building the building
+   * @return whether the building is being demolished
+   */
+  public synchronized boolean isDemolishing(Building building) {
+    for (Change change : demolitions) {
+      if (PolygonUtil.polygonIntersects(change.polygon, building.getPolygon())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized boolean isEmpty() {
+    return constructions.isEmpty() && demolitions.isEmpty() && purchases.isEmpty();
+  }
+
+  public synchronized int size() {
+    return constructions.size() + demolitions.size() + purchases.size();
+  }
+
+  public synchronized long getConfirmed() {
+    return confirmed;
+  }
+
+  public synchronized long getRolledBack() {
+    return rolledBack;
+  }
+
+  /**
+   * Removes all pending changes.
+   */
+  public synchronized void clear() {
+    constructions.clear();
+    demolitions.clear();
+    purchases.clear();
+  }
+
+  private class Change {
+    private final Polygon polygon;
+    private final Building building;
+    private final long created;
+
+    Change(Polygon polygon, Building building) {
+      this.polygon = polygon;
+      this.building = building;
+      this.created = System.nanoTime();
+    }
+
+    boolean isBefore(long loadStarted) {
+      return loadStarted != 0 && loadStarted - created > 0;
+    }
+
+    boolean isExpired(long now) {
+      return now - created >= timeoutNanos;
+    }
+  }
+}
@@ -31,8 +31,9 @@ public class AskMoneyAction {
     logger.debug("Asking money from stakeholder #" + giverId);
     if (environment.getBudget(giverId) >= amount) {
       AskMoneyRequest askMoneyRequest = new AskMoneyRequest(environment.getStakeholderId(), giverId, amount);
-      HttpConnection.getInstance().execute("event/PlayerEventType/MONEY_TRANSFER_ASK/",
+      HttpConnection.getInstance().execute(PlayerEvent.MONEY_TRANSFER_ASK.getUrl(),
           CallType.POST, new StringResultHandler(), true, askMoneyRequest);
+      environment.invalidate(PlayerEvent.MONEY_TRANSFER_ASK);
     } else {
       logger.debug("Stakeholder #" + giverId + " has less money than asked");
     }
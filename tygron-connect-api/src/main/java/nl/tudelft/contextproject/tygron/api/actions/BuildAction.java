@@ -6,11 +6,11 @@ import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.Environment;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
 import nl.tudelft.contextproject.tygron.handlers.StringResultHandler;
-import nl.tudelft.contextproject.tygron.objects.BuildingList;
 import nl.tudelft.contextproject.tygron.objects.Function;
 import nl.tudelft.contextproject.tygron.objects.FunctionMap;
 import nl.tudelft.contextproject.tygron.objects.Stakeholder;
 import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.util.PolygonSimplifier;
 import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
@@ -81,11 +81,13 @@ public class BuildAction {
     }
     
     if (selectedLand != null) {
+      selectedLand = PolygonSimplifier.getInstance().simplify(selectedLand);
       BuildRequest buildRequest = new BuildRequest(stakeholder, 
           function, neededFloors, selectedLand);
-      HttpConnection.getInstance().execute("event/PlayerEventType/BUILDING_PLAN_CONSTRUCTION/",
+      HttpConnection.getInstance().execute(PlayerEvent.BUILDING_PLAN_CONSTRUCTION.getUrl(),
               CallType.POST, new StringResultHandler(), true, buildRequest);
-      environment.get(BuildingList.class);
+      environment.speculateConstruction(function.getId(), neededFloors, selectedLand);
+      environment.invalidate(PlayerEvent.BUILDING_PLAN_CONSTRUCTION);
       return true;
     } else {
       logger.info("Not enough land for building");
@@ -6,9 +6,9 @@ import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.Environment;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
 import nl.tudelft.contextproject.tygron.handlers.StringResultHandler;
-import nl.tudelft.contextproject.tygron.objects.LandMap;
 import nl.tudelft.contextproject.tygron.objects.Stakeholder;
 import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.util.PolygonSimplifier;
 import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
@@ -17,6 +17,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A BuyLandAction buys a piece of land.
@@ -52,20 +53,27 @@ public class BuyLandAction {
     }
     
     Polygon suitableLand = environment.getSuitableLand(availableLand, surface);
+    if (suitableLand == null) {
+      logger.info("No suitable land found");
+      return false;
+    }
     
     // Split the land per landowner.
     List<Polygon> splitLand = new ArrayList<>();
     for (Polygon polygon : availableLandList) {
-      splitLand.add(PolygonUtil.polygonIntersection(polygon, suitableLand));
+      splitLand.add(PolygonSimplifier.getInstance().simplify(
+          PolygonUtil.polygonIntersection(polygon, suitableLand)));
     }
     
     Stakeholder buyer = environment.get(StakeholderList.class).get(environment.getStakeholderId());
     for (Polygon landPiece : splitLand) {
       BuyLandRequest buyLandRequest = new BuyLandRequest(buyer, landPiece, cost);
-      HttpConnection.getInstance().execute("event/PlayerEventType/MAP_BUY_LAND/",
+      HttpConnection.getInstance().execute(PlayerEvent.MAP_BUY_LAND.getUrl(),
               CallType.POST, new StringResultHandler(), true, buyLandRequest);
     }
-    environment.get(LandMap.class);
+    // Record the pieces that were sent, which may differ from the suitable land after simplification.
+    environment.speculatePurchase(PolygonUtil.polygonUnion(splitLand));
+    environment.invalidate(PlayerEvent.MAP_BUY_LAND);
     return true;
   }
   
@@ -79,18 +87,13 @@ public class BuyLandAction {
   
   /**
    * Gets all available lands not owned by the selected stakeholder.
-   * @return Land that can be bought.
+   * @return Land that can be bought, per owner.
    */
   private List<Polygon> getBuyableLand() {
-    List<Polygon> result = new ArrayList<Polygon>();
-    for (Stakeholder stakeholder : environment.get(StakeholderList.class)) {
-      Polygon land = new Polygon();
-      if (stakeholder.getId() != environment.getStakeholderId()) {
-        Polygon stakeholderLand = environment.getAvailableLand(stakeholder);
-        logger.debug(PolygonUtil.toString(stakeholderLand));
-        land = PolygonUtil.polygonUnion(land, stakeholderLand);
-      }
-      result.add(land);
+    List<Polygon> result = new ArrayList<>();
+    for (Map.Entry<Integer, Polygon> entry : environment.getBuyableLand().entrySet()) {
+      logger.debug("Stakeholder " + entry.getKey() + ": " + PolygonUtil.toString(entry.getValue()));
+      result.add(entry.getValue());
     }
     return result;
   }
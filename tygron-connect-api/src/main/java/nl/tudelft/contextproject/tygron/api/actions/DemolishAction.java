@@ -11,12 +11,16 @@ import nl.tudelft.contextproject.tygron.objects.BuildingList;
 import nl.tudelft.contextproject.tygron.objects.LandMap;
 import nl.tudelft.contextproject.tygron.objects.Stakeholder;
 import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.util.PolygonSimplifier;
 import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * An Action for demolishing land.
  */
@@ -50,11 +54,17 @@ public class DemolishAction {
     }
     
     Polygon suitableLand = environment.getSuitableLand(occupiedLand, surface);
+    if (suitableLand == null) {
+      logger.info("No suitable land found");
+      return false;
+    }
     
+    suitableLand = PolygonSimplifier.getInstance().simplify(suitableLand);
     DemolishRequest demolishRequest = new DemolishRequest(stakeholder, suitableLand);
-    HttpConnection.getInstance().execute("event/PlayerEventType/BUILDING_PLAN_DEMOLISH_COORDINATES/",
+    HttpConnection.getInstance().execute(PlayerEvent.BUILDING_PLAN_DEMOLISH_COORDINATES.getUrl(),
             CallType.POST, new StringResultHandler(), true, demolishRequest);
-    environment.reload(BuildingList.class);
+    environment.speculateDemolition(suitableLand);
+    environment.invalidate(PlayerEvent.BUILDING_PLAN_DEMOLISH_COORDINATES);
     return true;
   }
   
@@ -72,19 +82,22 @@ public class DemolishAction {
    * @return The stakeholder's occupied land.
    */
   private Polygon getOccupiedLand(Stakeholder stakeholder) {
-    Polygon owned = new Polygon();
+    LandMap lands = environment.get(LandMap.class);
+    List<Polygon> ownedList = new ArrayList<>();
     for (Integer landId : stakeholder.getOwnedLands()) {
-      owned = PolygonUtil.polygonUnion(owned, environment.get(LandMap.class).get(landId).getPolygon());
+      ownedList.add(lands.get(landId).getPolygon());
     }
+    Polygon owned = PolygonUtil.polygonUnion(ownedList);
 
     logger.debug("Owned land: {}", PolygonUtil.toString(owned));
     
-    Polygon occupied = new Polygon();
-    for (Building building : environment.get(BuildingList.class)) {
+    List<Polygon> occupiedList = new ArrayList<>();
+    for (Building building : environment.get(BuildingList.class).getIndex().search(owned)) {
       if (!building.demolished()) {
-        occupied = PolygonUtil.polygonUnion(occupied, building.getPolygon());
+        occupiedList.add(building.getPolygon());
       }
     }
+    Polygon occupied = PolygonUtil.polygonUnion(occupiedList);
 
     logger.debug("Occupied land: {}", PolygonUtil.toString(occupied));
 
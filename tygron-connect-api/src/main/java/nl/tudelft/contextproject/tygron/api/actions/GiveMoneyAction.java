@@ -31,8 +31,9 @@ public class GiveMoneyAction {
     logger.debug("Giving money to stakeholder #" + receiverId);
     if (environment.getBudget(environment.getStakeholderId()) >= amount) {
       GiveMoneyRequest giveMoneyRequest = new GiveMoneyRequest(environment.getStakeholderId(), receiverId, amount);
-      HttpConnection.getInstance().execute("event/PlayerEventType/MONEY_TRANSFER_GIVE/",
+      HttpConnection.getInstance().execute(PlayerEvent.MONEY_TRANSFER_GIVE.getUrl(),
           CallType.POST, new StringResultHandler(), true, giveMoneyRequest);
+      environment.invalidate(PlayerEvent.MONEY_TRANSFER_GIVE);
     } else {
       logger.debug("Selected stakeholder has less money than given");
     }
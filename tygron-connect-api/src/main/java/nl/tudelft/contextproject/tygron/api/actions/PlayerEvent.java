@@ -0,0 +1,52 @@
+package nl.tudelft.contextproject.tygron.api.actions;
+
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.tygron.objects.ZoneList;
+import nl.tudelft.contextproject.tygron.objects.indicators.IndicatorList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A PlayerEvent is a Tygron player event type. Every event declares which data
+ * it invalidates, so only that data has to be loaded again after the event was sent.
+ */
+public enum PlayerEvent {
+  BUILDING_PLAN_CONSTRUCTION(BuildingList.class, IndicatorList.class),
+  BUILDING_PLAN_DEMOLISH_COORDINATES(BuildingList.class, IndicatorList.class),
+  MAP_BUY_LAND(LandMap.class, StakeholderList.class),
+  MAP_SELL_LAND(LandMap.class, StakeholderList.class),
+  MONEY_TRANSFER_ASK(IndicatorList.class),
+  MONEY_TRANSFER_GIVE(IndicatorList.class),
+  ZONE_ADD_FUNCTION_CATEGORY(ZoneList.class),
+  ZONE_SET_MAX_FLOORS(ZoneList.class),
+  POPUP_ANSWER(),
+  POPUP_ANSWER_WITH_DATE();
+
+  private static final String URL_PREFIX = "event/PlayerEventType/";
+
+  private final List<Class<?>> invalidates;
+
+  private PlayerEvent(Class<?>... invalidates) {
+    this.invalidates = Collections.unmodifiableList(Arrays.asList(invalidates));
+  }
+
+  /**
+   * Returns the API url of this event.
+   * @return the url of this event.
+   */
+  public String getUrl() {
+    return URL_PREFIX + name() + "/";
+  }
+
+  /**
+   * Returns the data classes that are changed by this event.
+   * @return the invalidated data classes.
+   */
+  public List<Class<?>> getInvalidates() {
+    return invalidates;
+  }
+}
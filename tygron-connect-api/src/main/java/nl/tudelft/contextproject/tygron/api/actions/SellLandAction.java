@@ -6,9 +6,9 @@ import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.Environment;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
 import nl.tudelft.contextproject.tygron.handlers.StringResultHandler;
-import nl.tudelft.contextproject.tygron.objects.LandMap;
 import nl.tudelft.contextproject.tygron.objects.Stakeholder;
 import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.util.PolygonSimplifier;
 import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
@@ -53,16 +53,21 @@ public class SellLandAction {
     }
     
     Polygon suitableLand = environment.getSuitableLand(availableLand, surface);
+    if (suitableLand == null) {
+      logger.info("No suitable land found");
+      return false;
+    }
     
     List<Stakeholder> list = new ArrayList<>(environment.get(StakeholderList.class));
     list.remove(environment.getStakeholderId());
     Random random = new Random();
     Stakeholder buyer = list.get(random.nextInt(list.size()));
     
+    suitableLand = PolygonSimplifier.getInstance().simplify(suitableLand);
     SellLandRequest sellLandRequest = new SellLandRequest(seller, buyer, suitableLand, price);
-    HttpConnection.getInstance().execute("event/PlayerEventType/MAP_SELL_LAND/",
+    HttpConnection.getInstance().execute(PlayerEvent.MAP_SELL_LAND.getUrl(),
             CallType.POST, new StringResultHandler(), true, sellLandRequest);
-    environment.reload(LandMap.class);
+    environment.invalidate(PlayerEvent.MAP_SELL_LAND);
     return true;
   }
   
@@ -3,7 +3,9 @@ package nl.tudelft.contextproject.tygron.api.loaders;
 import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
 import nl.tudelft.contextproject.tygron.handlers.objects.BuildingListResultHandler;
+import nl.tudelft.contextproject.tygron.objects.Building;
 import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.VersionedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,11 +15,14 @@ import org.slf4j.LoggerFactory;
 public class BuildingListLoader extends Loader<BuildingList> {
   private static final Logger logger = LoggerFactory.getLogger(BuildingListLoader.class);
 
+  // Unchanged buildings are reused between loads
+  private final VersionedCache<Building> cache = new VersionedCache<>();
+
   @Override
   protected BuildingList load() {
     logger.debug("Loading buildings");
     return HttpConnection.getInstance().execute("lists/"
-            + "buildings", CallType.GET, new BuildingListResultHandler(), true);
+            + "buildings", CallType.GET, new BuildingListResultHandler(cache), true);
   }
 
   @Override
@@ -29,4 +34,12 @@ public class BuildingListLoader extends Loader<BuildingList> {
   public RefreshInterval getRefreshInterval() {
     return RefreshInterval.NORMAL;
   }
+
+  /**
+   * Returns the cache of buildings that is shared between loads.
+   * @return the cache
+   */
+  public VersionedCache<Building> getCache() {
+    return cache;
+  }
 }
@@ -3,7 +3,9 @@ package nl.tudelft.contextproject.tygron.api.loaders;
 import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
 import nl.tudelft.contextproject.tygron.handlers.objects.LandMapResultHandler;
+import nl.tudelft.contextproject.tygron.objects.Land;
 import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.VersionedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,11 +15,14 @@ import org.slf4j.LoggerFactory;
 public class LandMapLoader extends Loader<LandMap> {
   private static final Logger logger = LoggerFactory.getLogger(LandMapLoader.class);
 
+  // Unchanged lands are reused between loads
+  private final VersionedCache<Land> cache = new VersionedCache<>();
+
   @Override
   protected LandMap load() {
     logger.debug("Loading lands");
     return HttpConnection.getInstance().execute("lists/lands",
-            CallType.GET, new LandMapResultHandler(), true);
+            CallType.GET, new LandMapResultHandler(cache), true);
   }
 
   @Override
@@ -29,4 +34,12 @@ public class LandMapLoader extends Loader<LandMap> {
   public RefreshInterval getRefreshInterval() {
     return RefreshInterval.NORMAL;
   }
+
+  /**
+   * Returns the cache of lands that is shared between loads.
+   * @return the cache
+   */
+  public VersionedCache<Land> getCache() {
+    return cache;
+  }
 }
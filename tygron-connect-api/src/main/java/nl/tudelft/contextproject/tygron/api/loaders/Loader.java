@@ -6,7 +6,8 @@ package nl.tudelft.contextproject.tygron.api.loaders;
  * @param <T> the class that this loader provides.
  */
 public abstract class Loader<T> {
-  private T cached;
+  private volatile T cached;
+  private volatile long loadStarted;
 
   public Loader() {
   }
@@ -22,8 +23,11 @@ public abstract class Loader<T> {
    * @return the result of load
    */
   public T reload() {
-    cached = load();
-    return cached;
+    long start = System.nanoTime();
+    T result = load();
+    cached = result;
+    loadStarted = start;
+    return result;
   }
 
   /**
@@ -31,10 +35,34 @@ public abstract class Loader<T> {
    * @return cached object.
    */
   public T get() {
-    if (cached == null) {
-      cached = load();
+    T result = cached;
+    if (result == null) {
+      result = reload();
+    }
+    return result;
+  }
+
+  /**
+   * Returns when the load of the cached object was started, as given by {@link System#nanoTime()}.
+   * Everything that happened on the server before this moment is part of the cached object.
+   * @return the start of the last load, or 0 if nothing was loaded yet.
+   */
+  public long getLoadStarted() {
+    return loadStarted;
+  }
+
+  /**
+   * Creates another loader of the same data, without the cached object. Loaders whose
+   * constructor takes arguments should override this.
+   * @return the new loader
+   */
+  @SuppressWarnings("unchecked")
+  public Loader<T> newLoader() {
+    try {
+      return getClass().newInstance();
+    } catch (InstantiationException | IllegalAccessException e) {
+      throw new IllegalStateException("Could not create another " + getClass().getSimpleName(), e);
     }
-    return cached;
   }
 
   /**
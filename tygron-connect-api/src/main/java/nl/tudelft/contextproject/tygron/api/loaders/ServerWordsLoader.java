@@ -8,7 +8,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Loads ServerWords.
+ * Loads all ServerWords at once, used by the
+ * {@link nl.tudelft.contextproject.tygron.api.ServerWordsStore} when many words are missing.
  */
 public class ServerWordsLoader extends Loader<ServerWords> {
   private static final Logger logger = LoggerFactory.getLogger(ServerWordsLoader.class);
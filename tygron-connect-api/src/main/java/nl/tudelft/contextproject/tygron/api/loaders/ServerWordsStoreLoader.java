@@ -0,0 +1,23 @@
+package nl.tudelft.contextproject.tygron.api.loaders;
+
+import nl.tudelft.contextproject.tygron.api.ServerWordsStore;
+
+/**
+ * Provides an empty ServerWordsStore, which loads the server words when they are asked for.
+ */
+public class ServerWordsStoreLoader extends Loader<ServerWordsStore> {
+  @Override
+  protected ServerWordsStore load() {
+    return new ServerWordsStore();
+  }
+
+  @Override
+  public Class<ServerWordsStore> getDataClass() {
+    return ServerWordsStore.class;
+  }
+
+  @Override
+  public RefreshInterval getRefreshInterval() {
+    return RefreshInterval.NEVER;
+  }
+}
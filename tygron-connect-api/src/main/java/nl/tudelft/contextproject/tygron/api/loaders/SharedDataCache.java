@@ -0,0 +1,132 @@
+package nl.tudelft.contextproject.tygron.api.loaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A SharedDataCache keeps one copy of the data of a project that never changes, such as the
+ * functions and server words, for all sessions of that project in this JVM. Sessions retain
+ * the data they use and release it when they close; data without references is removed.
+ */
+public class SharedDataCache {
+  private static final Logger logger = LoggerFactory.getLogger(SharedDataCache.class);
+
+  private static final SharedDataCache instance = new SharedDataCache();
+
+  private final Map<String, Entry> entries;
+  private long loads;
+  private long hits;
+
+  public SharedDataCache() {
+    entries = new HashMap<>();
+  }
+
+  /**
+   * Return the cache shared by all sessions in this JVM.
+   * @return the shared cache
+   */
+  public static SharedDataCache getInstance() {
+    return instance;
+  }
+
+  private static String key(String project, Class<?> dataClass) {
+    return project + "/" + dataClass.getName();
+  }
+
+  /**
+   * Adds a reference to the data of a project.
+   * @param project the name of the project
+   * @param dataClass the class of the data
+   */
+  public synchronized void retain(String project, Class<?> dataClass) {
+    String key = key(project, dataClass);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      entry = new Entry();
+      entries.put(key, entry);
+    }
+    entry.references++;
+  }
+
+  /**
+   * Removes a reference to the data of a project. The data is removed with the last reference.
+   * @param project the name of the project
+   * @param dataClass the class of the data
+   */
+  public synchronized void release(String project, Class<?> dataClass) {
+    String key = key(project, dataClass);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return;
+    }
+    entry.references--;
+    if (entry.references <= 0) {
+      logger.debug("Removing shared " + key);
+      entries.remove(key);
+    }
+  }
+
+  /**
+   * Returns the data of a project, loading it with the loader if no session loaded it yet.
+   * Data that is not retained is loaded every time and not stored.
+   * @param project the name of the project
+   * @param loader the loader of the data
+   * @param <T> the type of the data
+   * @return the data
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String project, Loader<T> loader) {
+    Entry entry;
+    synchronized (this) {
+      entry = entries.get(key(project, loader.getDataClass()));
+    }
+    if (entry == null) {
+      return loader.load();
+    }
+    // Sessions asking for the same data at the same time wait for a single load.
+    synchronized (entry) {
+      if (entry.value == null) {
+        entry.value = loader.load();
+        synchronized (this) {
+          loads++;
+        }
+      } else {
+        synchronized (this) {
+          hits++;
+        }
+      }
+      return (T) entry.value;
+    }
+  }
+
+  /**
+   * Returns the amount of references to the data of a project.
+   * @param project the name of the project
+   * @param dataClass the class of the data
+   * @return the amount of references
+   */
+  public synchronized int getReferences(String project, Class<?> dataClass) {
+    Entry entry = entries.get(key(project, dataClass));
+    return entry == null ? 0 : entry.references;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public synchronized long getLoads() {
+    return loads;
+  }
+
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  private static class Entry {
+    private int references;
+    private Object value;
+  }
+}
@@ -0,0 +1,65 @@
+package nl.tudelft.contextproject.tygron.api.loaders;
+
+/**
+ * Wraps a loader of data that never changes, so the data can be shared with the other sessions
+ * of the same project through the {@link SharedDataCache}. Until the loader is attached to a
+ * project, it loads like the loader it wraps.
+ * @param <T> the class that this loader provides.
+ */
+public class SharedLoader<T> extends Loader<T> {
+  private final Loader<T> loader;
+  private volatile String project;
+
+  public SharedLoader(Loader<T> loader) {
+    this.loader = loader;
+  }
+
+  @Override
+  protected T load() {
+    String current = project;
+    return current == null ? loader.load() : SharedDataCache.getInstance().get(current, loader);
+  }
+
+  /**
+   * Shares the data of this loader with the other sessions of a project.
+   * @param newProject the name of the project
+   */
+  public synchronized void attach(String newProject) {
+    detach();
+    SharedDataCache.getInstance().retain(newProject, getDataClass());
+    project = newProject;
+  }
+
+  /**
+   * Releases the shared data. The data that was already loaded stays cached in this loader.
+   */
+  public synchronized void detach() {
+    if (project != null) {
+      SharedDataCache.getInstance().release(project, getDataClass());
+      project = null;
+    }
+  }
+
+  public String getProject() {
+    return project;
+  }
+
+  public Loader<T> getLoader() {
+    return loader;
+  }
+
+  @Override
+  public Loader<T> newLoader() {
+    return new SharedLoader<>(loader.newLoader());
+  }
+
+  @Override
+  public Class<T> getDataClass() {
+    return loader.getDataClass();
+  }
+
+  @Override
+  public RefreshInterval getRefreshInterval() {
+    return loader.getRefreshInterval();
+  }
+}
@@ -3,7 +3,9 @@ package nl.tudelft.contextproject.tygron.api.loaders;
 import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
 import nl.tudelft.contextproject.tygron.handlers.objects.ZoneListResultHandler;
+import nl.tudelft.contextproject.tygron.objects.Zone;
 import nl.tudelft.contextproject.tygron.objects.ZoneList;
+import nl.tudelft.contextproject.tygron.objects.VersionedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,11 +15,14 @@ import org.slf4j.LoggerFactory;
 public class ZoneListLoader extends Loader<ZoneList> {
   private static final Logger logger = LoggerFactory.getLogger(ZoneListLoader.class);
 
+  // Unchanged zones are reused between loads
+  private final VersionedCache<Zone> cache = new VersionedCache<>();
+
   @Override
   public ZoneList load() {
     logger.debug("Loading zones");
     return HttpConnection.getInstance().execute("lists/"
-            + "zones", CallType.GET, new ZoneListResultHandler(), true);
+            + "zones", CallType.GET, new ZoneListResultHandler(cache), true);
   }
 
   @Override
@@ -29,4 +34,12 @@ public class ZoneListLoader extends Loader<ZoneList> {
   public RefreshInterval getRefreshInterval() {
     return RefreshInterval.NORMAL;
   }
+
+  /**
+   * Returns the cache of zones that is shared between loads.
+   * @return the cache
+   */
+  public VersionedCache<Zone> getCache() {
+    return cache;
+  }
 }
@@ -2,11 +2,27 @@ package nl.tudelft.contextproject.tygron.handlers.objects;
 
 import nl.tudelft.contextproject.tygron.handlers.JsonArrayResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.ResultHandler;
+import nl.tudelft.contextproject.tygron.objects.Building;
 import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.VersionedCache;
 
 public class BuildingListResultHandler extends ResultHandler<BuildingList> {
+  private VersionedCache<Building> cache;
+
+  public BuildingListResultHandler() {
+    this(new VersionedCache<Building>());
+  }
+
+  /**
+   * Creates a handler that reuses unchanged buildings from the given cache.
+   * @param cache the buildings of the previous result
+   */
+  public BuildingListResultHandler(VersionedCache<Building> cache) {
+    this.cache = cache;
+  }
+
   @Override
   public BuildingList handleResult(String input) {
-    return new BuildingList(new JsonArrayResultHandler().handleResult(input));
+    return new BuildingList(new JsonArrayResultHandler().handleResult(input), cache);
   }
 }
@@ -2,11 +2,27 @@ package nl.tudelft.contextproject.tygron.handlers.objects;
 
 import nl.tudelft.contextproject.tygron.handlers.JsonArrayResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.ResultHandler;
+import nl.tudelft.contextproject.tygron.objects.Land;
 import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.VersionedCache;
 
 public class LandMapResultHandler extends ResultHandler<LandMap> {
+  private VersionedCache<Land> cache;
+
+  public LandMapResultHandler() {
+    this(new VersionedCache<Land>());
+  }
+
+  /**
+   * Creates a handler that reuses unchanged lands from the given cache.
+   * @param cache the lands of the previous result
+   */
+  public LandMapResultHandler(VersionedCache<Land> cache) {
+    this.cache = cache;
+  }
+
   @Override
   public LandMap handleResult(String input) {
-    return new LandMap(new JsonArrayResultHandler().handleResult(input));
+    return new LandMap(new JsonArrayResultHandler().handleResult(input), cache);
   }
 }
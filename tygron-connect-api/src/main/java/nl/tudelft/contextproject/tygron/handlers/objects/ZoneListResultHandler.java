@@ -2,12 +2,27 @@ package nl.tudelft.contextproject.tygron.handlers.objects;
 
 import nl.tudelft.contextproject.tygron.handlers.JsonArrayResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.ResultHandler;
+import nl.tudelft.contextproject.tygron.objects.Zone;
 import nl.tudelft.contextproject.tygron.objects.ZoneList;
+import nl.tudelft.contextproject.tygron.objects.VersionedCache;
 
 public class ZoneListResultHandler extends ResultHandler<ZoneList> {
+  private VersionedCache<Zone> cache;
+
+  public ZoneListResultHandler() {
+    this(new VersionedCache<Zone>());
+  }
+
+  /**
+   * Creates a handler that reuses unchanged zones from the given cache.
+   * @param cache the zones of the previous result
+   */
+  public ZoneListResultHandler(VersionedCache<Zone> cache) {
+    this.cache = cache;
+  }
 
   @Override
   public ZoneList handleResult(String input) {
-    return new ZoneList(new JsonArrayResultHandler().handleResult(input));
+    return new ZoneList(new JsonArrayResultHandler().handleResult(input), cache);
   }
 }
@@ -11,10 +11,11 @@ import org.slf4j.LoggerFactory;
 /**
  * A building is an object in the game that is situated on some surface, and has a certain amount of floors.
  */
-public class Building {
+public class Building implements VersionedItem, SpatialItem {
   private static final Logger logger = LoggerFactory.getLogger(Building.class);
   
   private int id;
+  private int version;
   private int functionId;
   private String name;
   private Polygon polygon;
@@ -28,6 +29,7 @@ public class Building {
   public Building(JSONObject input) {
     name = input.getString("name");
     id = input.getInt("id");
+    version = input.getInt("version");
     functionId = input.getInt("functionID");
     try {
       polygon = PolygonUtil.createPolygonFromWkt(input.getString("polygons"));
@@ -39,14 +41,43 @@ public class Building {
     state = input.getString("state");
   }
 
+  /**
+   * Constructs a building that only exists locally, for example while the server
+   * has not yet processed a construction.
+   * @param id The building's id.
+   * @param name The building's name.
+   * @param functionId The building's function id.
+   * @param polygon The polygon defining the building.
+   * @param floors The number of floors of the building.
+   * @param state The state of the building.
+   */
+  public Building(int id, String name, int functionId, Polygon polygon, int floors, String state) {
+    this.id = id;
+    this.name = name;
+    this.functionId = functionId;
+    this.polygon = polygon;
+    this.floors = floors;
+    this.state = state;
+  }
+
   /**
    * Get the building's id.
    * @return Building id.
    */
+  @Override
   public int getId() {
     return id;
   } 
   
+  /**
+   * Get the building's version.
+   * @return Building version.
+   */
+  @Override
+  public int getVersion() {
+    return version;
+  }
+  
   /**
    * Get the building's name.
    * @return Building name.
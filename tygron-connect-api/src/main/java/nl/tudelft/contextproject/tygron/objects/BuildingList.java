@@ -14,6 +14,8 @@ public class BuildingList extends ArrayList<Building> {
    */
   private static final long serialVersionUID = 1L;
 
+  private transient volatile SpatialIndex<Building> index;
+
   public BuildingList() {
 
   }
@@ -23,12 +25,28 @@ public class BuildingList extends ArrayList<Building> {
    * @param input input response
    */
   public BuildingList(JSONArray input) {
+    this(input, new VersionedCache<Building>());
+  }
+
+  /**
+   * Constructs a building list from a tygron response, reusing the buildings
+   * of the previous list that did not change.
+   * @param input input response
+   * @param cache the buildings of the previous list
+   */
+  public BuildingList(JSONArray input, VersionedCache<Building> cache) {
+    VersionedCache<Building>.Generation generation = cache.begin();
     for (int i = 0; i < input.length(); i++) {
       JSONObject buildingWrapper = input.getJSONObject(i);
       JSONObject buildingObj = buildingWrapper.getJSONObject("Building");
-      Building building = new Building(buildingObj);
+      Building building = generation.reuse(buildingObj.getInt("id"), buildingObj.getInt("version"));
+      if (building == null) {
+        building = new Building(buildingObj);
+        generation.add(building);
+      }
       this.add(building);
     }
+    generation.commit();
   }
   
   /**
@@ -44,4 +62,18 @@ public class BuildingList extends ArrayList<Building> {
     }
     return null;
   }
+
+  /**
+   * Returns a spatial index over the buildings. The index is built on first use, so
+   * the list should not be changed after calling this method.
+   * @return the spatial index.
+   */
+  public SpatialIndex<Building> getIndex() {
+    SpatialIndex<Building> result = index;
+    if (result == null) {
+      result = new SpatialIndex<>(this);
+      index = result;
+    }
+    return result;
+  }
 }
@@ -11,10 +11,11 @@ import org.slf4j.LoggerFactory;
 /**
  * A Land is an object that has an owner and a surface.
  */
-public class Land {
+public class Land implements VersionedItem, SpatialItem {
   private static final Logger logger = LoggerFactory.getLogger(Land.class);
   
   private int id;
+  private int version;
   private int ownerId;
   private Polygon polygon;
   
@@ -24,6 +25,7 @@ public class Land {
    */
   public Land(JSONObject land) {
     id = land.getInt("id");
+    version = land.getInt("version");
     ownerId = land.getInt("ownerID");
     try {
       polygon = PolygonUtil.createPolygonFromWkt(land.getString("polygons"));
@@ -33,10 +35,16 @@ public class Land {
     }
   }
 
+  @Override
   public int getId() {
     return id;
   }
 
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
   public int getOwnerId() {
     return ownerId;
   }
@@ -15,6 +15,8 @@ public class LandMap extends HashMap<Integer, Land> {
    */
   private static final long serialVersionUID = 1L;
 
+  private transient volatile SpatialIndex<Land> index;
+
   public LandMap() {
 
   }
@@ -23,11 +25,41 @@ public class LandMap extends HashMap<Integer, Land> {
    * @param input The array to read from.
    */
   public LandMap(JSONArray input) {
+    this(input, new VersionedCache<Land>());
+  }
+
+  /**
+   * Constructs a map for all pieces of land, reusing the lands
+   * of the previous map that did not change.
+   * @param input The array to read from.
+   * @param cache The lands of the previous map.
+   */
+  public LandMap(JSONArray input, VersionedCache<Land> cache) {
+    VersionedCache<Land>.Generation generation = cache.begin();
     for (int i = 0; i < input.length(); i++) {
       JSONObject landWrapper = input.getJSONObject(i);
       JSONObject landObj = landWrapper.getJSONObject("Land");
-      Land land = new Land(landObj);
+      Land land = generation.reuse(landObj.getInt("id"), landObj.getInt("version"));
+      if (land == null) {
+        land = new Land(landObj);
+        generation.add(land);
+      }
       this.put(land.getId(), land);
     }
+    generation.commit();
+  }
+
+  /**
+   * Returns a spatial index over the lands. The index is built on first use, so
+   * the map should not be changed after calling this method.
+   * @return the spatial index.
+   */
+  public SpatialIndex<Land> getIndex() {
+    SpatialIndex<Land> result = index;
+    if (result == null) {
+      result = new SpatialIndex<>(values());
+      index = result;
+    }
+    return result;
   }
 }
@@ -0,0 +1,190 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import nl.tudelft.contextproject.tygron.objects.PopUpHandler.EventValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A PopUpClassifier finds the event of a popup by comparing its text with the server words.
+ * Every server word is split once into the literal fragments between its placeholders.
+ * A text matches a server word if it contains all fragments in order, which is checked
+ * with plain string searches instead of regular expressions.
+ */
+public class PopUpClassifier {
+  /**
+   * The ids of the server words that describe each event.
+   */
+  private static final Map<EventValue, Integer> WORD_IDS = new EnumMap<>(EventValue.class);
+
+  static {
+    WORD_IDS.put(EventValue.PERMIT_REQUEST_RECEIVED, 2);
+    WORD_IDS.put(EventValue.ZONING_DIVERGED, 165);
+    WORD_IDS.put(EventValue.LAND_BUY_REQUEST_RECEIVED, 92);
+    WORD_IDS.put(EventValue.LAND_TRANSACTION_APPROVED, 93);
+    WORD_IDS.put(EventValue.LAND_SELL_REQUEST_RECEIVED, 94);
+    WORD_IDS.put(EventValue.LAND_TRANSACION_REFUSED, 95);
+    WORD_IDS.put(EventValue.LAND_BUY__REQUEST_SENT, 127);
+    WORD_IDS.put(EventValue.LAND_SELL_REQUEST_SENT, 128);
+    WORD_IDS.put(EventValue.PERMIT_REQUEST_REFUSED, 135);
+    WORD_IDS.put(EventValue.PERMIT_REQUEST_ASK, 137);
+    WORD_IDS.put(EventValue.PERMIT_REQUEST_APPROVED, 139);
+    WORD_IDS.put(EventValue.PERMIT_REQUEST_SENT, 140);
+    WORD_IDS.put(EventValue.PLAN_PERFORM_ASK, 134);
+  }
+
+  /**
+   * The parts of a server word that can be replaced by any text.
+   */
+  private static final String[] PLACEHOLDERS = {"%s", "\\n", "<p>", "</p>"};
+
+  private final List<Template> templates;
+
+  /**
+   * Creates a classifier from the server words that describe each event.
+   * @param words the server words
+   */
+  public PopUpClassifier(ServerWords words) {
+    templates = new ArrayList<>();
+    for (Map.Entry<EventValue, Integer> entry : WORD_IDS.entrySet()) {
+      templates.add(new Template(entry.getKey(), words.get(entry.getValue())));
+    }
+    // When several server words match, the one with the most literal text is the most specific.
+    Collections.sort(templates);
+  }
+
+  /**
+   * Returns the ids of the server words a classifier needs.
+   * @return the ids
+   */
+  public static Set<Integer> getWordIds() {
+    return new HashSet<>(WORD_IDS.values());
+  }
+
+  /**
+   * Sets the event of a popup, and its surface and cost if the event has them.
+   * @param popUp the popup
+   */
+  public void classify(PopUp popUp) {
+    EventValue event = getEvent(popUp.getText().trim());
+    if (event == null) {
+      return;
+    }
+    popUp.setEvent(event);
+    switch (event) {
+      case LAND_TRANSACTION_APPROVED:
+        popUp.setCost(parseNumber(getNumbers(popUp.getText()).get(0)));
+        break;
+      case LAND_BUY_REQUEST_RECEIVED:
+      case LAND_SELL_REQUEST_RECEIVED:
+        List<String> numbers = getNumbers(popUp.getText());
+        popUp.setSurface(parseNumber(numbers.get(0)));
+        popUp.setCost(parseNumber(numbers.get(1)));
+        break;
+      default: // No parameters
+        break;
+    }
+  }
+
+  /**
+   * Finds the event described by a text.
+   * @param text the text of a popup
+   * @return the event, or null if the text does not match any server word
+   */
+  public EventValue getEvent(String text) {
+    for (Template template : templates) {
+      if (template.matches(text)) {
+        return template.event;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Extracts the numbers from a text, ignoring its last character. A number is any sequence
+   * of digits, periods and question marks.
+   * @param text the text
+   * @return the numbers, in order of appearance
+   */
+  static List<String> getNumbers(String text) {
+    List<String> numbers = new ArrayList<>();
+    int start = -1;
+    int end = text.length() - 1;
+    for (int i = 0; i <= end; i++) {
+      boolean numeric = i < end && isNumeric(text.charAt(i));
+      if (numeric && start < 0) {
+        start = i;
+      } else if (!numeric && start >= 0) {
+        numbers.add(text.substring(start, i));
+        start = -1;
+      }
+    }
+    return numbers;
+  }
+
+  private static boolean isNumeric(char character) {
+    return (character >= '0' && character <= '9') || character == '.' || character == '?';
+  }
+
+  /**
+   * Parses a number that uses periods as thousands separators.
+   */
+  private static int parseNumber(String number) {
+    return Integer.parseInt(number.replace(".", ""));
+  }
+
+  /**
+   * The literal fragments of a single server word.
+   */
+  private static class Template implements Comparable<Template> {
+    private final EventValue event;
+    private final List<String> fragments;
+    private final int length;
+
+    Template(EventValue event, String word) {
+      this.event = event;
+      this.fragments = new ArrayList<>();
+      int start = 0;
+      int literal = 0;
+      while (start < word.length()) {
+        int next = word.length();
+        int skip = 0;
+        for (String placeholder : PLACEHOLDERS) {
+          int index = word.indexOf(placeholder, start);
+          if (index >= 0 && index < next) {
+            next = index;
+            skip = placeholder.length();
+          }
+        }
+        if (next > start) {
+          fragments.add(word.substring(start, next));
+          literal += next - start;
+        }
+        start = next + skip;
+      }
+      this.length = literal;
+    }
+
+    boolean matches(String text) {
+      int position = 0;
+      for (String fragment : fragments) {
+        int index = text.indexOf(fragment, position);
+        if (index < 0) {
+          return false;
+        }
+        position = index + fragment.length();
+      }
+      return true;
+    }
+
+    @Override
+    public int compareTo(Template other) {
+      return Integer.compare(other.length, length);
+    }
+  }
+}
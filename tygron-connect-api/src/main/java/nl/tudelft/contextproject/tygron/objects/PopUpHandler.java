@@ -3,25 +3,56 @@ package nl.tudelft.contextproject.tygron.objects;
 import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.Environment;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
+import nl.tudelft.contextproject.tygron.api.HttpConnectionData;
+import nl.tudelft.contextproject.tygron.api.PollScheduler;
+import nl.tudelft.contextproject.tygron.api.actions.PlayerEvent;
 import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
 import nl.tudelft.contextproject.tygron.objects.PopUp.TypeValue;
-import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A Popuphandler answers Popups.
+ * A Popuphandler answers Popups. Every version of a popup is answered at most once, and the
+ * answers of a single update are sent in parallel on the workers of the {@link PollScheduler}.
+ *
+ * <p>Popups are accepted by default. A {@link PopUpPolicy} can be registered per event to decide
+ * otherwise. Policies run on a separate pool, and when a policy does not decide within the
+ * decision timeout, the default answer is sent instead.</p>
  */
 public class PopUpHandler {
-  
-  private int requestsOpen;
+  private static final Logger logger = LoggerFactory.getLogger(PopUpHandler.class);
+
+  /**
+   * The default time a policy may take to decide, in milliseconds.
+   */
+  public static final long DEFAULT_DECISION_TIMEOUT = 2000;
+
+  /**
+   * The amount of threads that evaluate policies.
+   */
+  public static final int DECISION_POOL_SIZE = 4;
+
+  private static final ExecutorService decisions = Executors.newFixedThreadPool(DECISION_POOL_SIZE,
+      new PollScheduler.DaemonThreadFactory("tygron-popup-policy"));
+
+  private final AtomicInteger requestsOpen;
   
   // When selling land, 0 is YES, 1 is NO, 2 is GIVE FOR FREE
   // When requesting confirmation, 0 is OK
@@ -40,7 +71,18 @@ public class PopUpHandler {
   private int version;
   private int stakeholderId;
   private List<PopUp> list;
-  private Map<EventValue, String> wordsMap;
+  private PopUpClassifier classifier;
+
+  // The popup versions handled by the last update, as id and version packed in a long. Popups
+  // up to the version the last update was requested from are not loaded again, and are dropped.
+  private final Set<Long> answered;
+  private int handledVersion;
+
+  // Requests to the server that result from the popups being handled
+  private List<Callable<Object>> pending;
+
+  private final Map<EventValue, PopUpPolicy> policies;
+  private volatile long decisionTimeout;
   
   /**
    * A list containing all new, active popups.
@@ -51,73 +93,25 @@ public class PopUpHandler {
     this.environment = env;
     this.stakeholderId = stakeholderId;
     this.version = 0;
-    this.requestsOpen = 0;
-    this.wordsMap = new HashMap<>();
+    this.requestsOpen = new AtomicInteger();
+    this.answered = new HashSet<>();
+    this.policies = new EnumMap<>(EventValue.class);
+    this.decisionTimeout = DEFAULT_DECISION_TIMEOUT;
     this.list = new ArrayList<>();
-    loadServerWords();
-  }
-  
-  /**
-   * Loads all the server words about popups.
-   */
-  private void loadServerWords() {
-    String res;
-    res = replace(getServerWord(2));
-    wordsMap.put(EventValue.PERMIT_REQUEST_RECEIVED, res);
-    res = replace(getServerWord(165));
-    wordsMap.put(EventValue.ZONING_DIVERGED, res);
-    res = replace(getServerWord(92));
-    wordsMap.put(EventValue.LAND_BUY_REQUEST_RECEIVED, res);
-    res = replace(getServerWord(93));
-    wordsMap.put(EventValue.LAND_TRANSACTION_APPROVED, res);
-    res = replace(getServerWord(94));
-    wordsMap.put(EventValue.LAND_SELL_REQUEST_RECEIVED, res);
-    res = replace(getServerWord(95));
-    wordsMap.put(EventValue.LAND_TRANSACION_REFUSED, res);
-    res = replace(getServerWord(127));
-    wordsMap.put(EventValue.LAND_BUY__REQUEST_SENT, res);
-    res = replace(getServerWord(128));
-    wordsMap.put(EventValue.LAND_SELL_REQUEST_SENT, res);
-    res = replace(getServerWord(135));
-    wordsMap.put(EventValue.PERMIT_REQUEST_REFUSED, res);
-    res = replace(getServerWord(137));
-    wordsMap.put(EventValue.PERMIT_REQUEST_ASK, res);
-    res = replace(getServerWord(139));
-    wordsMap.put(EventValue.PERMIT_REQUEST_APPROVED, res);
-    res = replace(getServerWord(140));
-    wordsMap.put(EventValue.PERMIT_REQUEST_SENT, res);
-    res = replace(getServerWord(134));
-    wordsMap.put(EventValue.PLAN_PERFORM_ASK, res);
-  }
-  
-  /**
-   * Gets a server word from the Tygron API.
-   * @return The server word translation
-   */
-  private String getServerWord(int wordId) {
-    return environment.get(ServerWords.class).get(wordId);
-  }
-  
-  /**
-   * Replaces every occurence of an line break or %s with a regular expression.
-   * @return A regular expression
-   */
-  private String replace(String text) {
-    String res = text.replace("\\n", "(.*)").replace("%s", "(.*)");
-    res =  res.replace("</p>", "(.*)").replace("<p>", "(.*)");
-    return "(.*)" + res + "(.*)";
+    this.classifier = new PopUpClassifier(env.getServerWords(PopUpClassifier.getWordIds()));
   }
   
   /**
    * Gets new popups from the API update.
    */
-  public void loadPopUps() {
+  public synchronized void loadPopUps() {
+    int requested = this.version;
     JSONObject dataObject = HttpConnection.getInstance().getUpdate(new JsonObjectResultHandler(),
             true, getRequestObject());
     if (dataObject != null) {
       JSONObject items = dataObject.getJSONObject("items");
       if (items.has("POPUPS")) {
-        updateList(items.getJSONObject("POPUPS"));
+        updateList(items.getJSONObject("POPUPS"), requested);
       } else {
         list = new ArrayList<>();
       }
@@ -135,125 +129,111 @@ public class PopUpHandler {
   /**
    * Puts all new popups visible to the user in a list.
    * @param object The JSONObject containing new popups
+   * @param requested The version the popups were loaded from
    */
-  private void updateList(JSONObject object) {
+  private void updateList(JSONObject object, int requested) {
     list = new ArrayList<>();
     JSONArray popUpArray = object.getJSONArray("[Lnl.tytech.core.data.item.Item;");
     for (int i = 0; i < popUpArray.length(); i++) {
       PopUp popUp = new PopUp(popUpArray.getJSONObject(i));
       this.version = Math.max(this.version, popUp.getVersion());
       if (popUp.getVisibleForActorIds().contains(this.stakeholderId)) {
-        setEvent(popUp);
+        classifier.classify(popUp);
         list.add(popUp);
       }
     }
-    handlePopUps();
+    handlePopUps(requested);
   }
   
   /**
-   * Finds a match in wordsList for the popUp text and sets the popup's event.
-   * @param popUp The popUp
+   * Handles the popups that were not handled before. The bookkeeping is done in order,
+   * after which the requests to the server are sent in parallel.
+   * @param requested The version the popups were loaded from
    */
-  private void setEvent(PopUp popUp) {
-    String text = popUp.getText().trim();
-    Set<EventValue> events = wordsMap.keySet();
-    for (EventValue event : events) {
-      if (text.matches(wordsMap.get(event))) {
-        popUp.setEvent(event);
-        setEventParameters(popUp);
-        return;
+  private void handlePopUps(int requested) {
+    pending = new ArrayList<>();
+    for (PopUp popUp : list) {
+      if (popUp.getEvent() != null && popUp.getVersion() > requested && answered.add(getKey(popUp))) {
+        handlePopUp(popUp);
       }
     }
+    Iterator<Long> keys = answered.iterator();
+    while (keys.hasNext()) {
+      if ((keys.next() & 0xffffffffL) <= requested) {
+        keys.remove();
+      }
+    }
+    handledVersion = Math.max(handledVersion, requested);
+    List<Callable<Object>> tasks = pending;
+    pending = null;
+    PollScheduler.getInstance().invokeAll(tasks);
   }
-  
+
+  private static long getKey(PopUp popUp) {
+    return ((long) popUp.getId() << 32) | (popUp.getVersion() & 0xffffffffL);
+  }
+
   /**
-   * Set cost and surface for each popup, if applicable.
+   * Returns whether this version of a popup was handled already.
    * @param popUp The popup
+   * @return Whether the popup was handled
    */
-  private void setEventParameters(PopUp popUp) {
-    EventValue event = popUp.getEvent();
-    String[] numList = getNumbers(popUp.getText());
-    int cost;
-    int surface;
-    switch (event) {
+  public synchronized boolean isAnswered(PopUp popUp) {
+    return popUp.getVersion() <= handledVersion || answered.contains(getKey(popUp));
+  }
+
+  /**
+   * Returns the amount of popup versions kept to answer each of them only once.
+   * @return The amount of popup versions
+   */
+  synchronized int getAnsweredCount() {
+    return answered.size();
+  }
+
+  /**
+   * Handles a popup appropriately.
+   * @param popUp The popup
+   */
+  private void handlePopUp(PopUp popUp) {
+    switch (popUp.getEvent()) {
       case LAND_TRANSACTION_APPROVED:
-        cost = Integer.parseInt(numList[0].replace(".", ""));
-        popUp.setCost(cost);
+        landTransactionApproved(popUp);
+        break;
+      case LAND_TRANSACION_REFUSED:
+        landTransactionRefused(popUp);
         break;
       case LAND_BUY_REQUEST_RECEIVED:
-        surface = Integer.parseInt(numList[0].replace(".", ""));
-        popUp.setSurface(surface);
-        cost = Integer.parseInt(numList[1].replace(".", ""));
-        popUp.setCost(cost);
+        landBuyRequestReceived(popUp);
         break;
       case LAND_SELL_REQUEST_RECEIVED:
-        surface = Integer.parseInt(numList[0].replace(".", ""));
-        popUp.setSurface(surface);
-        cost = Integer.parseInt(numList[1].replace(".", ""));
-        popUp.setCost(cost);
+        landSellRequestReceived(popUp);
         break;
-      default: // Do nothing (LAND_SELL_REQUEST_SENT, LAND_BUY__REQUEST_SENT, PERMIT_REQUEST_SENT)
+      case PERMIT_REQUEST_ASK:
+        permitRequestAsk(popUp);
+        break;
+      case PERMIT_REQUEST_RECEIVED:
+        permitRequestReceived(popUp);
+        break;
+      case PERMIT_REQUEST_APPROVED:
+        permitRequestApproved(popUp);
+        break;
+      case PERMIT_REQUEST_REFUSED:
+        permitRequestRefused(popUp);
+        break;
+      case ZONING_DIVERGED:
+        zoneDiverged(popUp);
+        break;
+      case PLAN_PERFORM_ASK:
+        planPerformAsk(popUp);
+        break;
+      case LAND_SELL_REQUEST_SENT:
+        landRequestSent();
+        break;
+      case LAND_BUY__REQUEST_SENT:
+        landRequestSent();
+        break;
+      default: // Do nothing (PERMIT_REQUEST_SENT)
         break;
-    }
-  }
-    
-  /**
-   * Extracts numbers from a string.
-   * @param string The string
-   * @return The array of numbers
-   */
-  private String[] getNumbers(String string) { 
-    String newstring = string.substring(0, string.length() - 1);
-    newstring = newstring.replaceAll("[^.?0-9]+", " ");
-    return newstring.trim().split(" ");
-  }
-  
-  /**
-   * Handles the popups appropriately.
-   */
-  private void handlePopUps() {
-    for (PopUp popUp : list) {
-      EventValue event = popUp.getEvent();
-      switch (event) {
-        case LAND_TRANSACTION_APPROVED:
-          landTransactionApproved(popUp);
-          break;
-        case LAND_TRANSACION_REFUSED:
-          landTransactionRefused(popUp);
-          break;
-        case LAND_BUY_REQUEST_RECEIVED:
-          landBuyRequestReceived(popUp);
-          break;
-        case LAND_SELL_REQUEST_RECEIVED:
-          landSellRequestReceived(popUp);
-          break;
-        case PERMIT_REQUEST_ASK:
-          permitRequestAsk(popUp);
-          break;
-        case PERMIT_REQUEST_RECEIVED:
-          permitRequestReceived(popUp);
-          break;
-        case PERMIT_REQUEST_APPROVED:
-          permitRequestApproved(popUp);
-          break;
-        case PERMIT_REQUEST_REFUSED:
-          permitRequestRefused(popUp);
-          break;
-        case ZONING_DIVERGED:
-          zoneDiverged(popUp);
-          break;
-        case PLAN_PERFORM_ASK:
-          planPerformAsk(popUp);
-          break;
-        case LAND_SELL_REQUEST_SENT:
-          landRequestSent();
-          break;
-        case LAND_BUY__REQUEST_SENT:
-          landRequestSent();
-          break;
-        default: // Do nothing (PERMIT_REQUEST_SENT)
-          break;
-      }
     }
   }
   
@@ -301,8 +281,13 @@ public class PopUpHandler {
     // TODO Send info to stakeholder
   }
 
-  private void zoneDiverged(PopUp popUp) {
-    changeZones(popUp.getLinkId());
+  private void zoneDiverged(final PopUp popUp) {
+    respond(popUp, PopUpPolicy.ACCEPT, new Response() {
+      @Override
+      public void apply(int decision) {
+        changeZones(popUp.getLinkId());
+      }
+    });
     // TODO Send info to stakeholder
   }
 
@@ -323,14 +308,112 @@ public class PopUpHandler {
     // TODO Send info to stakeholder
   }
   
-  private void answer(PopUp popUp, int answer) {
+  private void answer(final PopUp popUp, int answer) {
+    respond(popUp, answer, new Response() {
+      @Override
+      public void apply(int decision) {
+        sendAnswer(popUp, decision);
+      }
+    });
+  }
+
+  /**
+   * Responds to a popup with the decision of its policy, or with the default decision if there
+   * is no policy for its event.
+   */
+  private void respond(final PopUp popUp, final int defaultDecision, final Response response) {
+    final PopUpPolicy policy;
+    synchronized (policies) {
+      policy = policies.get(popUp.getEvent());
+    }
+    if (policy == null) {
+      pending.add(new Callable<Object>() {
+        @Override
+        public Object call() {
+          response.apply(defaultDecision);
+          return null;
+        }
+      });
+      return;
+    }
+
+    // Whichever finishes first, the policy or the timeout, responds to the popup.
+    final AtomicBoolean decided = new AtomicBoolean();
+    final Future<?> evaluation = decisions.submit(HttpConnectionData.propagate(new Runnable() {
+      @Override
+      public void run() {
+        int decision;
+        try {
+          decision = policy.decide(popUp);
+        } catch (RuntimeException e) {
+          logger.error("Policy for popup " + popUp.getId() + " failed, using the default answer", e);
+          decision = defaultDecision;
+        }
+        if (decided.compareAndSet(false, true) && decision != PopUpPolicy.IGNORE) {
+          response.apply(decision);
+        }
+      }
+    }));
+    PollScheduler.getInstance().scheduleOnce(new Runnable() {
+      @Override
+      public void run() {
+        if (decided.compareAndSet(false, true)) {
+          logger.warn("Policy for popup " + popUp.getId() + " did not decide in time, using the default answer");
+          evaluation.cancel(true);
+          // Answering sends requests, which should not hold up the poll threads.
+          PollScheduler.getInstance().submit(new Runnable() {
+            @Override
+            public void run() {
+              response.apply(defaultDecision);
+            }
+          });
+        }
+      }
+    }, decisionTimeout);
+  }
+
+  /**
+   * Registers the policy that decides how popups of an event are answered.
+   * @param event The event
+   * @param policy The policy, or null to use the default answer
+   */
+  public void setPolicy(EventValue event, PopUpPolicy policy) {
+    synchronized (policies) {
+      if (policy == null) {
+        policies.remove(event);
+      } else {
+        policies.put(event, policy);
+      }
+    }
+  }
+
+  /**
+   * Sets the time a policy may take to decide, after which the default answer is used.
+   * @param decisionTimeout The time in milliseconds
+   */
+  public void setDecisionTimeout(long decisionTimeout) {
+    this.decisionTimeout = decisionTimeout;
+  }
+
+  public long getDecisionTimeout() {
+    return decisionTimeout;
+  }
+
+  /**
+   * Acts on the decision made for a popup.
+   */
+  private interface Response {
+    void apply(int decision);
+  }
+
+  private void sendAnswer(PopUp popUp, int answer) {
     AnswerPopupRequest parameters = new AnswerPopupRequest(stakeholderId, popUp.getId(), answer);
     if (popUp.getType() == TypeValue.INTERACTION_WITH_DATE) {
       parameters.put(0);
-      HttpConnection.getInstance().execute("event/PlayerEventType/POPUP_ANSWER_WITH_DATE/",
+      HttpConnection.getInstance().execute(PlayerEvent.POPUP_ANSWER_WITH_DATE.getUrl(),
           CallType.POST, new JsonObjectResultHandler(), true, parameters);
     } else {
-      HttpConnection.getInstance().execute("event/PlayerEventType/POPUP_ANSWER/", 
+      HttpConnection.getInstance().execute(PlayerEvent.POPUP_ANSWER.getUrl(),
           CallType.POST, new JsonObjectResultHandler(), true, parameters);
     }
   }
@@ -351,21 +434,20 @@ public class PopUpHandler {
     Building building = environment.get(BuildingList.class).getId(buildingId);
     Function function = environment.get(FunctionMap.class).get(building.getFunctionId());
     
-    for (Zone zone : environment.get(ZoneList.class)) {
-      if (PolygonUtil.polygonIntersects(zone.getPolygon(), building.getPolygon())) {
-        // Add function category to zone.
-        ZoneAddFunctionCategoryRequest zoneadd =
-                new ZoneAddFunctionCategoryRequest(stakeholderId, zone.getId(), function.getCategoryValue().toString());
-        HttpConnection.getInstance().execute("event/PlayerEventType/ZONE_ADD_FUNCTION_CATEGORY/", CallType.POST,
-                new JsonObjectResultHandler(), true, zoneadd);
-        
-        // Change max floors allowed in zone
-        int floors = Math.max(zone.getAllowedFloors(), building.getFloors());
-        ZoneSetMaxFloorsRequest parameters =
-                new ZoneSetMaxFloorsRequest(stakeholderId, zone.getId(), floors);
-        HttpConnection.getInstance().execute("event/PlayerEventType/ZONE_SET_MAX_FLOORS/", CallType.POST,
-                new JsonObjectResultHandler(), true, parameters);
-      }
+    for (Zone zone : environment.get(ZoneList.class).getIndex().intersecting(building.getPolygon())) {
+      // Add function category to zone.
+      ZoneAddFunctionCategoryRequest zoneadd =
+              new ZoneAddFunctionCategoryRequest(stakeholderId, zone.getId(), function.getCategoryValue().toString());
+      HttpConnection.getInstance().execute(PlayerEvent.ZONE_ADD_FUNCTION_CATEGORY.getUrl(), CallType.POST,
+              new JsonObjectResultHandler(), true, zoneadd);
+      
+      // Change max floors allowed in zone
+      int floors = Math.max(zone.getAllowedFloors(), building.getFloors());
+      ZoneSetMaxFloorsRequest parameters =
+              new ZoneSetMaxFloorsRequest(stakeholderId, zone.getId(), floors);
+      HttpConnection.getInstance().execute(PlayerEvent.ZONE_SET_MAX_FLOORS.getUrl(), CallType.POST,
+              new JsonObjectResultHandler(), true, parameters);
+      environment.invalidate(PlayerEvent.ZONE_SET_MAX_FLOORS);
     }
   }
 
@@ -386,20 +468,36 @@ public class PopUpHandler {
   }
   
   public int requestsOpen() {
-    return requestsOpen;
+    return requestsOpen.get();
   }
   
-  public List<PopUp> getList() {
+  public synchronized int getVersion() {
+    return version;
+  }
+
+  /**
+   * Sets the version from which popups are loaded.
+   * @param version The version of the last handled popups.
+   */
+  public synchronized void setVersion(int version) {
+    this.version = version;
+  }
+
+  public synchronized List<PopUp> getList() {
     return list;
   }
   
   private void incrementRequestsOpen() {
-    requestsOpen++;
+    requestsOpen.incrementAndGet();
   }
   
   private void decrementRequestsOpen() {
-    if (requestsOpen > 0) {
-      requestsOpen--;
-    }
+    int current;
+    do {
+      current = requestsOpen.get();
+      if (current == 0) {
+        return;
+      }
+    } while (!requestsOpen.compareAndSet(current, current - 1));
   }
 }
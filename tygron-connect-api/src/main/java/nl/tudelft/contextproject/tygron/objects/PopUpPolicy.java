@@ -0,0 +1,26 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+/**
+ * A PopUpPolicy decides how a popup is answered. Policies are registered per event with
+ * {@link PopUpHandler#setPolicy(PopUpHandler.EventValue, PopUpPolicy)} and are evaluated
+ * on a separate thread, so they may take some time or wait for an agent.
+ */
+public interface PopUpPolicy {
+  /**
+   * The decision to leave a popup unanswered.
+   */
+  int IGNORE = -1;
+
+  /**
+   * The answer that accepts a request or confirms a message.
+   */
+  int ACCEPT = 0;
+
+  /**
+   * Decides how to answer a popup. For a ZONING_DIVERGED popup, any decision other than
+   * {@link #IGNORE} adjusts the zones.
+   * @param popUp The popup
+   * @return The id of the answer, or {@link #IGNORE}
+   */
+  int decide(PopUp popUp);
+}
@@ -1,28 +1,41 @@
 package nl.tudelft.contextproject.tygron.objects;
 
 import org.json.JSONArray;
+import org.json.JSONObject;
 
-import java.util.ArrayList;
+import java.util.HashMap;
 
 /**
  * Server Words are references from "keys" to "values" for translations. 
  * Messages are passed on as integers, and with the server words we can translate them to regular languages.
- *
+ * The translations are mapped by the id of their server word.
  */
-public class ServerWords extends ArrayList<String> {
+public class ServerWords extends HashMap<Integer, String> {
   /**
    * Serial ID.
    */
   private static final long serialVersionUID = 1L;
 
+  public ServerWords() {
+
+  }
+
   /**
    * Parses server words from a JSONArray.
    * @param input The array containing the server words.
    */
   public ServerWords(JSONArray input) {
     for (int i = 0; i < input.length(); i++) {
-      String content = input.getJSONObject(i).getJSONObject("ServerWord").getString("translation");
-      this.add(content);
+      add(input.getJSONObject(i));
     }
   }
+
+  /**
+   * Adds a single server word, either wrapped in a ServerWord object or not.
+   * @param input The object containing the server word.
+   */
+  public void add(JSONObject input) {
+    JSONObject word = input.has("ServerWord") ? input.getJSONObject("ServerWord") : input;
+    put(word.getInt("id"), word.getString("translation"));
+  }
 }
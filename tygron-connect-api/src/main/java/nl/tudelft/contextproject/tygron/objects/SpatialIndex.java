@@ -0,0 +1,158 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A SpatialIndex is an R-tree over the envelopes of a fixed set of items. The tree is
+ * packed with the Sort-Tile-Recursive algorithm, so queries only visit the items near
+ * the queried area instead of all items on the map.
+ * @param <T> the type of item in the index.
+ */
+public class SpatialIndex<T extends SpatialItem> {
+  /**
+   * The maximum amount of children of a node.
+   */
+  public static final int NODE_CAPACITY = 16;
+
+  private final Node root;
+  private final int size;
+
+  /**
+   * Builds an index over the given items.
+   * @param items the items to index.
+   */
+  public SpatialIndex(Collection<? extends T> items) {
+    List<Node> nodes = new ArrayList<>();
+    for (T item : items) {
+      Envelope2D envelope = new Envelope2D();
+      item.getPolygon().queryEnvelope2D(envelope);
+      if (!envelope.isEmpty()) {
+        nodes.add(new Node(envelope, item, null));
+      }
+    }
+    size = nodes.size();
+    while (nodes.size() > NODE_CAPACITY) {
+      nodes = pack(nodes);
+    }
+    root = new Node(null, null, nodes);
+  }
+
+  /**
+   * Packs a level of nodes into parent nodes. The nodes are sorted into vertical slices
+   * by their center x, and every slice is sorted by center y and cut into parents.
+   */
+  private List<Node> pack(List<Node> nodes) {
+    int parentCount = (nodes.size() + NODE_CAPACITY - 1) / NODE_CAPACITY;
+    int sliceCount = (int) Math.ceil(Math.sqrt(parentCount));
+    int sliceSize = sliceCount * NODE_CAPACITY;
+    Collections.sort(nodes, byCenterX);
+    List<Node> parents = new ArrayList<>(parentCount);
+    for (int start = 0; start < nodes.size(); start += sliceSize) {
+      List<Node> slice = new ArrayList<>(nodes.subList(start, Math.min(start + sliceSize, nodes.size())));
+      Collections.sort(slice, byCenterY);
+      for (int i = 0; i < slice.size(); i += NODE_CAPACITY) {
+        parents.add(new Node(null, null,
+            new ArrayList<>(slice.subList(i, Math.min(i + NODE_CAPACITY, slice.size())))));
+      }
+    }
+    return parents;
+  }
+
+  /**
+   * Returns all items whose envelope intersects the given envelope.
+   * @param envelope the area to search.
+   * @return the items near the area.
+   */
+  public List<T> search(Envelope2D envelope) {
+    List<T> result = new ArrayList<>();
+    if (!envelope.isEmpty()) {
+      search(root, envelope, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns all items whose envelope intersects the envelope of the given polygon.
+   * The items do not necessarily intersect the polygon itself.
+   * @param polygon the area to search.
+   * @return the items near the polygon.
+   */
+  public List<T> search(Polygon polygon) {
+    Envelope2D envelope = new Envelope2D();
+    polygon.queryEnvelope2D(envelope);
+    return search(envelope);
+  }
+
+  /**
+   * Returns all items that intersect the given polygon.
+   * @param polygon the polygon.
+   * @return the intersecting items.
+   */
+  public List<T> intersecting(Polygon polygon) {
+    List<T> result = new ArrayList<>();
+    for (T item : search(polygon)) {
+      if (PolygonUtil.polygonIntersects(item.getPolygon(), polygon)) {
+        result.add(item);
+      }
+    }
+    return result;
+  }
+
+  private void search(Node node, Envelope2D envelope, List<T> result) {
+    for (Node child : node.children) {
+      if (child.envelope.isIntersecting(envelope)) {
+        if (child.children == null) {
+          result.add(child.item);
+        } else {
+          search(child, envelope, result);
+        }
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private class Node {
+    private final Envelope2D envelope;
+    private final T item;
+    private final List<Node> children;
+
+    Node(Envelope2D envelope, T item, List<Node> children) {
+      this.item = item;
+      this.children = children;
+      if (envelope == null) {
+        envelope = new Envelope2D();
+        envelope.setEmpty();
+        for (Node child : children) {
+          envelope.merge(child.envelope);
+        }
+      }
+      this.envelope = envelope;
+    }
+  }
+
+  private final Comparator<Node> byCenterX = new Comparator<Node>() {
+    @Override
+    public int compare(Node node1, Node node2) {
+      return Double.compare(node1.envelope.getCenterX(), node2.envelope.getCenterX());
+    }
+  };
+
+  private final Comparator<Node> byCenterY = new Comparator<Node>() {
+    @Override
+    public int compare(Node node1, Node node2) {
+      return Double.compare(node1.envelope.getCenterY(), node2.envelope.getCenterY());
+    }
+  };
+}
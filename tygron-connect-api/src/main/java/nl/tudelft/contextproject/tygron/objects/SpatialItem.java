@@ -0,0 +1,14 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import com.esri.core.geometry.Polygon;
+
+/**
+ * A SpatialItem is a Tygron item that covers a polygon on the map.
+ */
+public interface SpatialItem {
+  /**
+   * Get the polygon covered by the item.
+   * @return the polygon.
+   */
+  Polygon getPolygon();
+}
@@ -0,0 +1,105 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A VersionedCache remembers the items of the previous load of a list, so that items
+ * whose version did not change can be reused instead of parsed again.
+ * @param <T> the type of item this cache holds.
+ */
+public class VersionedCache<T extends VersionedItem> {
+  private volatile Map<Integer, T> items;
+
+  private final AtomicLong hits;
+  private final AtomicLong misses;
+
+  /**
+   * Creates an empty cache.
+   */
+  public VersionedCache() {
+    items = new HashMap<>();
+    hits = new AtomicLong();
+    misses = new AtomicLong();
+  }
+
+  /**
+   * Starts a new load. Items are looked up in the committed items and
+   * only replace them once the generation is committed.
+   * @return the generation of this load.
+   */
+  public Generation begin() {
+    return new Generation(items);
+  }
+
+  /**
+   * Returns how many items were reused.
+   * @return the amount of reused items.
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * Returns how many items had to be parsed.
+   * @return the amount of parsed items.
+   */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * Returns the amount of items in the cache.
+   * @return the amount of items.
+   */
+  public int size() {
+    return items.size();
+  }
+
+  /**
+   * A Generation holds the items of a single load of a list.
+   */
+  public class Generation {
+    private final Map<Integer, T> previous;
+    private final Map<Integer, T> current;
+
+    Generation(Map<Integer, T> previous) {
+      this.previous = previous;
+      this.current = new HashMap<>();
+    }
+
+    /**
+     * Returns the item from the previous load if it has the given version.
+     * @param id the id of the item.
+     * @param version the version of the item.
+     * @return the previous item, or null if it has to be parsed again.
+     */
+    public T reuse(int id, int version) {
+      T item = previous.get(id);
+      if (item != null && item.getVersion() == version) {
+        hits.incrementAndGet();
+        current.put(id, item);
+        return item;
+      }
+      misses.incrementAndGet();
+      return null;
+    }
+
+    /**
+     * Adds a newly parsed item to this generation.
+     * @param item the item.
+     */
+    public void add(T item) {
+      current.put(item.getId(), item);
+    }
+
+    /**
+     * Replaces the items of the cache with the items of this generation.
+     * Items that were not part of this load are forgotten.
+     */
+    public void commit() {
+      items = current;
+    }
+  }
+}
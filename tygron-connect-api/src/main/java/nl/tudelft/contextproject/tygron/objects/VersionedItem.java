@@ -0,0 +1,19 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+/**
+ * A VersionedItem is a Tygron item with an id and a version. The server increases
+ * the version every time the item changes.
+ */
+public interface VersionedItem {
+  /**
+   * Get the id of the item.
+   * @return the id.
+   */
+  int getId();
+
+  /**
+   * Get the version of the item.
+   * @return the version.
+   */
+  int getVersion();
+}
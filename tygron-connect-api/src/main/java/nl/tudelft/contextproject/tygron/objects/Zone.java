@@ -16,7 +16,7 @@ import java.util.List;
  * @author Paul
  *
  */
-public class Zone {
+public class Zone implements VersionedItem, SpatialItem {
 
   private int allowedFloors;
   private List<Object> allowedFunctions;
@@ -106,6 +106,7 @@ public class Zone {
     return details;
   }
 
+  @Override
   public int getId() {
     return id;
   }
@@ -126,6 +127,7 @@ public class Zone {
     return sortIndex;
   }
 
+  @Override
   public int getVersion() {
     return version;
   }
@@ -15,16 +15,48 @@ public class ZoneList extends ArrayList<Zone> {
    */
   private static final long serialVersionUID = 1L;
 
+  private transient volatile SpatialIndex<Zone> index;
+
   /**
    * Constructs a ZoneList from a tygron response.
    * @param input input response
    */
   public ZoneList(JSONArray input) {
+    this(input, new VersionedCache<Zone>());
+  }
+
+  /**
+   * Constructs a ZoneList from a tygron response, reusing the zones
+   * of the previous list that did not change.
+   * @param input input response
+   * @param cache the zones of the previous list
+   */
+  public ZoneList(JSONArray input, VersionedCache<Zone> cache) {
+    VersionedCache<Zone>.Generation generation = cache.begin();
     for (int i = 0; i < input.length(); i++) {
       JSONObject zoneWrapper = input.getJSONObject(i);
       JSONObject zoneObject = zoneWrapper.getJSONObject("Zone");
-      Zone zone = new Zone(zoneObject);
+      Zone zone = generation.reuse(zoneObject.getInt("id"), zoneObject.getInt("version"));
+      if (zone == null) {
+        zone = new Zone(zoneObject);
+        generation.add(zone);
+      }
       this.add(zone);
     }
+    generation.commit();
+  }
+
+  /**
+   * Returns a spatial index over the zones. The index is built on first use, so
+   * the list should not be changed after calling this method.
+   * @return the spatial index.
+   */
+  public SpatialIndex<Zone> getIndex() {
+    SpatialIndex<Zone> result = index;
+    if (result == null) {
+      result = new SpatialIndex<>(this);
+      index = result;
+    }
+    return result;
   }
 }
@@ -0,0 +1,89 @@
+package nl.tudelft.contextproject.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A GeometryPool runs independent polygon computations in parallel on a fork/join pool.
+ * Polygon operations only use the CPU, so the pool is bounded by a thread budget instead
+ * of the amount of tasks. With a budget of one thread, tasks run on the calling thread.
+ */
+public class GeometryPool {
+  private static GeometryPool instance;
+
+  private final int parallelism;
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a pool with a thread budget.
+   * @param parallelism the maximum amount of threads computing at the same time
+   */
+  public GeometryPool(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism should be at least 1, got " + parallelism);
+    }
+    this.parallelism = parallelism;
+    this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+  }
+
+  /**
+   * Return the pool shared by all environments in this JVM, using one thread per processor.
+   * @return the shared pool
+   */
+  public static synchronized GeometryPool getInstance() {
+    if (instance == null) {
+      instance = new GeometryPool(Runtime.getRuntime().availableProcessors());
+    }
+    return instance;
+  }
+
+  /**
+   * Replaces the shared pool, for example to change the thread budget. The previous pool
+   * finishes the tasks it already started and is shut down.
+   * @param geometryPool the new shared pool, or null to use the default pool
+   */
+  public static synchronized void setInstance(GeometryPool geometryPool) {
+    if (instance != null && instance != geometryPool) {
+      instance.shutdown();
+    }
+    instance = geometryPool;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Runs all tasks and waits until they are all finished.
+   * @param tasks the tasks to run
+   * @param <T> the result type of the tasks
+   * @return the results of the tasks, in the same order
+   */
+  public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+    if (pool == null || tasks.size() < 2) {
+      List<T> results = new ArrayList<>();
+      for (Callable<T> task : tasks) {
+        try {
+          results.add(task.call());
+        } catch (RuntimeException e) {
+          throw e;
+        } catch (Exception e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return results;
+    }
+    return TaskUtil.invokeAll(pool, tasks);
+  }
+
+  /**
+   * Stops the threads of this pool once their tasks are finished.
+   */
+  public void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+}
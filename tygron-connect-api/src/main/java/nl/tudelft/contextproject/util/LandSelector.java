@@ -0,0 +1,150 @@
+package nl.tudelft.contextproject.util;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.Polygon;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A LandSelector selects a piece of land with a given surface from a larger piece of land.
+ * The land is cut by a straight line, and the position of the line is found with a binary
+ * search. This needs a bounded amount of polygon operations, and the result only depends on
+ * the input.
+ */
+public class LandSelector {
+  private static final Logger logger = LoggerFactory.getLogger(LandSelector.class);
+
+  /**
+   * The maximum amount of cut lines tried for a single piece of land.
+   */
+  public static final int MAX_ITERATIONS = 64;
+
+  /**
+   * The default time a selection may take, in milliseconds.
+   */
+  public static final long DEFAULT_TIME_BUDGET = 1000;
+
+  private final double errorMargin;
+  private final long timeBudget;
+
+  /**
+   * Creates a selector with the default time budget.
+   * @param errorMargin the allowed relative difference between the selected and requested surface
+   */
+  public LandSelector(double errorMargin) {
+    this(errorMargin, DEFAULT_TIME_BUDGET);
+  }
+
+  /**
+   * Creates a selector.
+   * @param errorMargin the allowed relative difference between the selected and requested surface
+   * @param timeBudget the time a selection may take, in milliseconds
+   */
+  public LandSelector(double errorMargin, long timeBudget) {
+    this.errorMargin = errorMargin;
+    this.timeBudget = timeBudget;
+  }
+
+  /**
+   * Selects a piece of land with the given surface. Single parcels that are large enough
+   * are tried first, smallest first, so the selection stays in one piece where possible.
+   * @param availableLand the land to select from
+   * @param surface the requested surface
+   * @return the selected land, or null if no land within the error margin could be found
+   */
+  public Polygon select(Polygon availableLand, double surface) {
+    long deadline = System.currentTimeMillis() + timeBudget;
+    if (availableLand.calculateArea2D() < surface * (1 - errorMargin)) {
+      logger.debug("Not enough land to select " + surface);
+      return null;
+    }
+
+    List<Polygon> parcels = getParcels(availableLand);
+    if (parcels.size() > 1) {
+      for (Polygon parcel : parcels) {
+        if (parcel.calculateArea2D() >= surface * (1 - errorMargin)) {
+          Polygon result = cut(new PreparedPolygon(parcel), surface, deadline);
+          if (result != null) {
+            return result;
+          }
+        }
+      }
+    }
+    return cut(new PreparedPolygon(availableLand), surface, deadline);
+  }
+
+  /**
+   * Checks whether a piece of land has the requested surface.
+   * @param land the land
+   * @param surface the requested surface
+   * @return whether the surface of the land is within the error margin
+   */
+  public boolean withinMargin(Polygon land, double surface) {
+    return withinMargin(land.calculateArea2D(), surface);
+  }
+
+  private boolean withinMargin(double area, double surface) {
+    return area < surface * (1 + errorMargin) && area > surface * (1 - errorMargin);
+  }
+
+  /**
+   * Cuts the land perpendicular to the longest side of its envelope, and searches the cut
+   * line that leaves the requested surface.
+   */
+  private Polygon cut(PreparedPolygon land, double surface, long deadline) {
+    if (withinMargin(land.getArea(), surface)) {
+      return land.getPolygon();
+    }
+    Envelope2D envelope = land.getEnvelope();
+    boolean horizontal = envelope.getWidth() >= envelope.getHeight();
+    double low = horizontal ? envelope.xmin : envelope.ymin;
+    double high = horizontal ? envelope.xmax : envelope.ymax;
+    for (int i = 0; i < MAX_ITERATIONS && System.currentTimeMillis() < deadline; i++) {
+      double line = (low + high) / 2;
+      Polygon piece = horizontal
+          ? land.clip(envelope.xmin, envelope.ymin, line, envelope.ymax)
+          : land.clip(envelope.xmin, envelope.ymin, envelope.xmax, line);
+      double area = piece.calculateArea2D();
+      if (withinMargin(area, surface)) {
+        return piece;
+      } else if (area < surface) {
+        low = line;
+      } else {
+        high = line;
+      }
+    }
+    logger.debug("No cut line found for surface " + surface);
+    return null;
+  }
+
+  /**
+   * Splits land into its parcels, sorted by ascending area. Every parcel is an outer ring
+   * together with its holes.
+   */
+  private List<Polygon> getParcels(Polygon land) {
+    List<Polygon> parcels = new ArrayList<>();
+    Polygon parcel = null;
+    for (int i = 0; i < land.getPathCount(); i++) {
+      if (land.isExteriorRing(i)) {
+        parcel = new Polygon();
+        parcels.add(parcel);
+      }
+      if (parcel != null) {
+        parcel.addPath(land, i, true);
+      }
+    }
+    Collections.sort(parcels, new Comparator<Polygon>() {
+      @Override
+      public int compare(Polygon polygon1, Polygon polygon2) {
+        return Double.compare(polygon1.calculateArea2D(), polygon2.calculateArea2D());
+      }
+    });
+    return parcels;
+  }
+}
@@ -0,0 +1,134 @@
+package nl.tudelft.contextproject.util;
+
+import com.esri.core.geometry.OperatorGeneralize;
+import com.esri.core.geometry.OperatorSimplify;
+import com.esri.core.geometry.Point2D;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.SpatialReference;
+
+import java.math.BigDecimal;
+
+/**
+ * A PolygonSimplifier reduces the amount of vertices of a polygon before it is sent to the server.
+ * Polygons resulting from unions and differences often contain many nearly collinear vertices
+ * and thin sliver rings, which only make requests larger and later operations slower.
+ *
+ * <p>Simplification is disabled by default. It can be enabled for all actions with
+ * {@link #setInstance(PolygonSimplifier)}.</p>
+ */
+public class PolygonSimplifier {
+  /**
+   * A simplifier that returns polygons unchanged.
+   */
+  public static final PolygonSimplifier NONE = new PolygonSimplifier(0, 0, 0);
+
+  private static volatile PolygonSimplifier instance = NONE;
+
+  private final double tolerance;
+  private final double minRingArea;
+  private final double gridSize;
+
+  /**
+   * Creates a simplifier. A value of 0 disables the corresponding step.
+   * @param tolerance the maximum distance a vertex may move when removing vertices
+   * @param minRingArea the minimum area of a ring, smaller outer rings are removed and smaller holes filled
+   * @param gridSize the size of the grid the vertices are snapped to
+   */
+  public PolygonSimplifier(double tolerance, double minRingArea, double gridSize) {
+    if (tolerance < 0 || minRingArea < 0 || gridSize < 0) {
+      throw new IllegalArgumentException("Simplification settings should not be negative");
+    }
+    this.tolerance = tolerance;
+    this.minRingArea = minRingArea;
+    this.gridSize = gridSize;
+  }
+
+  /**
+   * Return the simplifier used by the actions.
+   * @return the simplifier
+   */
+  public static PolygonSimplifier getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the simplifier used by the actions.
+   * @param simplifier the new simplifier, or null to disable simplification
+   */
+  public static void setInstance(PolygonSimplifier simplifier) {
+    instance = simplifier == null ? NONE : simplifier;
+  }
+
+  public boolean isEnabled() {
+    return tolerance > 0 || minRingArea > 0 || gridSize > 0;
+  }
+
+  /**
+   * Simplifies a polygon. Vertices are removed within the tolerance, the remaining vertices
+   * are snapped to the grid, small outer rings are removed together with their holes and small
+   * holes are filled.
+   * @param polygon the polygon
+   * @return the simplified polygon, or the same polygon if simplification is disabled
+   */
+  public Polygon simplify(Polygon polygon) {
+    if (!isEnabled() || polygon.isEmpty()) {
+      return polygon;
+    }
+    SpatialReference sr = SpatialReference.create(1);
+    Polygon result = polygon;
+    if (tolerance > 0) {
+      result = (Polygon) OperatorGeneralize.local().execute(result, tolerance, true, null);
+    }
+    if (gridSize > 0 || minRingArea > 0) {
+      result = rebuild(result);
+    }
+    return (Polygon) OperatorSimplify.local().execute(result, sr, true, null);
+  }
+
+  /**
+   * Copies the rings of a polygon that are large enough, with their vertices snapped to the grid.
+   */
+  private Polygon rebuild(Polygon polygon) {
+    Polygon result = new Polygon();
+    Point2D point = new Point2D();
+    boolean keep = true;
+    for (int path = 0; path < polygon.getPathCount(); path++) {
+      boolean large = Math.abs(polygon.calculateRingArea2D(path)) >= minRingArea;
+      if (polygon.isExteriorRing(path)) {
+        keep = large;
+      }
+      // The holes of a removed ring go with it, small holes are filled.
+      if (!keep || !large) {
+        continue;
+      }
+      double lastX = Double.NaN;
+      double lastY = Double.NaN;
+      int count = 0;
+      for (int i = polygon.getPathStart(path); i < polygon.getPathEnd(path); i++) {
+        polygon.getXY(i, point);
+        double x = snap(point.x);
+        double y = snap(point.y);
+        if (x == lastX && y == lastY) {
+          continue;
+        }
+        if (count == 0) {
+          result.startPath(x, y);
+        } else {
+          result.lineTo(x, y);
+        }
+        lastX = x;
+        lastY = y;
+        count++;
+      }
+    }
+    return result;
+  }
+
+  private double snap(double value) {
+    if (gridSize == 0) {
+      return value;
+    }
+    // Multiplying in decimal keeps results like 0.30000000000000004 out of the requests.
+    return BigDecimal.valueOf(Math.round(value / gridSize)).multiply(BigDecimal.valueOf(gridSize)).doubleValue();
+  }
+}
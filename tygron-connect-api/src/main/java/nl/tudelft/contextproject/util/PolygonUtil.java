@@ -1,18 +1,18 @@
 package nl.tudelft.contextproject.util;
 
 import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.GeometryCursor;
 import com.esri.core.geometry.OperatorContains;
 import com.esri.core.geometry.OperatorDifference;
 import com.esri.core.geometry.OperatorEquals;
-import com.esri.core.geometry.OperatorExportToWkt;
-import com.esri.core.geometry.OperatorImportFromWkt;
 import com.esri.core.geometry.OperatorIntersection;
 import com.esri.core.geometry.OperatorIntersects;
 import com.esri.core.geometry.OperatorUnion;
 import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.SimpleGeometryCursor;
 import com.esri.core.geometry.SpatialReference;
-import com.esri.core.geometry.WktImportFlags;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -34,12 +34,7 @@ public class PolygonUtil {
    * @return Polygon created from the wkt data.
    */
   public static Polygon createPolygonFromWkt(String wktString) {
-
-    Geometry geom = OperatorImportFromWkt.local().execute(
-        WktImportFlags.wktImportDefaults, Geometry.Type.Polygon, wktString,
-        null);
-
-    return (Polygon) geom;
+    return WktCodec.read(wktString);
   }
   
   /**
@@ -104,16 +99,25 @@ public class PolygonUtil {
   }
   
   /**
-   * Returns the union of all polygons in the list.
+   * Returns the union of all polygons in the list. All polygons are merged in a single
+   * operation, which is much faster than merging them one by one.
    * @param polygonList The list of polygons.
    * @return Union of all polygons.
    */
   public static Polygon polygonUnion(List<Polygon> polygonList) {
-    Polygon result = new Polygon();
+    List<Geometry> geometries = new ArrayList<>();
     for (Polygon polygon : polygonList) {
-      result = polygonUnion(result, polygon);
+      if (!polygon.isEmpty()) {
+        geometries.add(polygon);
+      }
     }
-    return result;
+    if (geometries.isEmpty()) {
+      return new Polygon();
+    }
+    SpatialReference sr = SpatialReference.create(1);
+    GeometryCursor inputs = new SimpleGeometryCursor(geometries);
+    GeometryCursor outputs = OperatorUnion.local().execute(inputs, sr, null);
+    return (Polygon) outputs.next();
   }
   
   /**
@@ -138,29 +142,7 @@ public class PolygonUtil {
    * @return Rectangle shaped polygon.
    */
   public static Polygon makeRectangle(double x1, double y1, double x2, double y2) {
-    StringBuilder builder = new StringBuilder();
-    builder.append("MULTIPOLYGON (((");
-    builder.append(x1);
-    builder.append(" ");
-    builder.append(y1);
-    builder.append(", ");
-    builder.append(x1);
-    builder.append(" ");
-    builder.append(y2);
-    builder.append(", ");
-    builder.append(x2);
-    builder.append(" ");
-    builder.append(y2);
-    builder.append(", ");
-    builder.append(x2);
-    builder.append(" ");
-    builder.append(y1);
-    builder.append(", ");
-    builder.append(x1);
-    builder.append(" ");
-    builder.append(y1);
-    builder.append(")))");
-    return createPolygonFromWkt(builder.toString());
+    return WktCodec.rectangle(x1, y1, x2, y2);
   }
   
   /**
@@ -169,9 +151,6 @@ public class PolygonUtil {
    * @return a stringified polygon
    */
   public static String toString(Polygon polygon) {
-    String result = OperatorExportToWkt.local().execute(0, polygon, null);
-    result = result.replaceAll(",", ".");
-    result = result.replaceAll("\\. ", ", ");    
-    return result;
+    return WktCodec.write(polygon);
   }
 }
@@ -0,0 +1,134 @@
+package nl.tudelft.contextproject.util;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.OperatorClip;
+import com.esri.core.geometry.OperatorContains;
+import com.esri.core.geometry.OperatorIntersection;
+import com.esri.core.geometry.OperatorIntersects;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.SpatialReference;
+
+/**
+ * A PreparedPolygon is a polygon that is used as the fixed operand of many queries.
+ * The polygon is accelerated once, and queries against polygons outside of its
+ * envelope are answered without touching the geometry at all.
+ */
+public class PreparedPolygon {
+  private static final SpatialReference SR = SpatialReference.create(1);
+
+  private final Polygon polygon;
+  private final Envelope2D envelope;
+  private final double area;
+
+  /**
+   * Prepares a polygon. The given polygon is copied, so it is not changed.
+   * @param polygon The polygon.
+   */
+  public PreparedPolygon(Polygon polygon) {
+    this.polygon = (Polygon) polygon.copy();
+    envelope = new Envelope2D();
+    this.polygon.queryEnvelope2D(envelope);
+    area = this.polygon.calculateArea2D();
+    if (!this.polygon.isEmpty()) {
+      OperatorIntersects.local().accelerateGeometry(this.polygon, SR,
+          Geometry.GeometryAccelerationDegree.enumMedium);
+      OperatorContains.local().accelerateGeometry(this.polygon, SR,
+          Geometry.GeometryAccelerationDegree.enumMedium);
+    }
+  }
+
+  public Polygon getPolygon() {
+    return polygon;
+  }
+
+  public Envelope2D getEnvelope() {
+    return envelope;
+  }
+
+  public double getArea() {
+    return area;
+  }
+
+  /**
+   * Returns true if the prepared polygon intersects with the other polygon.
+   * @param other The polygon.
+   * @return Whether the polygons intersect.
+   */
+  public boolean intersects(Polygon other) {
+    if (!envelope.isIntersecting(envelopeOf(other))) {
+      return false;
+    }
+    return OperatorIntersects.local().execute(polygon, other, SR, null);
+  }
+
+  /**
+   * Returns true if the prepared polygon contains the other polygon.
+   * @param other The containee.
+   * @return Whether the prepared polygon contains the other polygon.
+   */
+  public boolean contains(Polygon other) {
+    if (!envelope.contains(envelopeOf(other))) {
+      return false;
+    }
+    return OperatorContains.local().execute(polygon, other, SR, null);
+  }
+
+  /**
+   * Returns the intersection of the prepared polygon and the other polygon.
+   * @param other Input polygon.
+   * @return Intersection of both polygons.
+   */
+  public Polygon intersection(Polygon other) {
+    if (!envelope.isIntersecting(envelopeOf(other))) {
+      return new Polygon();
+    }
+    return (Polygon) OperatorIntersection.local().execute(polygon, other, SR, null);
+  }
+
+  /**
+   * Returns the part of the prepared polygon within a rectangle given by two opposite corners.
+   * Clipping by a rectangle is much cheaper than a general intersection.
+   * @param x1 X coordinate of the first corner.
+   * @param y1 Y coordinate of the first corner.
+   * @param x2 X coordinate of the second corner.
+   * @param y2 Y coordinate of the second corner.
+   * @return The clipped polygon.
+   */
+  public Polygon clip(double x1, double y1, double x2, double y2) {
+    Envelope2D rectangle = rectangle(x1, y1, x2, y2);
+    if (!envelope.isIntersecting(rectangle)) {
+      return new Polygon();
+    }
+    if (rectangle.contains(envelope)) {
+      return polygon;
+    }
+    return (Polygon) OperatorClip.local().execute(polygon, rectangle, SR, null);
+  }
+
+  /**
+   * Returns an upper bound of the area within a rectangle, without calculating the clipped polygon.
+   * @param x1 X coordinate of the first corner.
+   * @param y1 Y coordinate of the first corner.
+   * @param x2 X coordinate of the second corner.
+   * @param y2 Y coordinate of the second corner.
+   * @return The maximum area the clipped polygon can have.
+   */
+  public double maxClippedArea(double x1, double y1, double x2, double y2) {
+    Envelope2D overlap = rectangle(x1, y1, x2, y2);
+    if (!overlap.intersect(envelope)) {
+      return 0;
+    }
+    return Math.min(area, overlap.getArea());
+  }
+
+  private static Envelope2D rectangle(double x1, double y1, double x2, double y2) {
+    return new Envelope2D(Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+  }
+
+  private static Envelope2D envelopeOf(Polygon other) {
+    Envelope2D result = new Envelope2D();
+    other.queryEnvelope2D(result);
+    return result;
+  }
+}
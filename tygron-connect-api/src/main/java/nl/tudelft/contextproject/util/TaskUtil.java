@@ -0,0 +1,50 @@
+package nl.tudelft.contextproject.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * The Task Util class runs groups of tasks on an executor the same way for every pool.
+ */
+public class TaskUtil {
+
+  public TaskUtil() {
+  }
+
+  /**
+   * Runs all tasks on an executor and waits until they are all finished. If tasks fail, the
+   * other tasks still finish and the first failure is thrown.
+   * @param executor the executor to run the tasks on
+   * @param tasks the tasks to run
+   * @param <T> the result type of the tasks
+   * @return the results of the tasks, in the same order
+   */
+  public static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) {
+    List<T> results = new ArrayList<>();
+    RuntimeException failure = null;
+    try {
+      for (Future<T> future : executor.invokeAll(tasks)) {
+        try {
+          results.add(future.get());
+        } catch (ExecutionException e) {
+          results.add(null);
+          if (failure == null) {
+            failure = e.getCause() instanceof RuntimeException
+                ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+}
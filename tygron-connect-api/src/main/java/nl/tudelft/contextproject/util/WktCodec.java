@@ -0,0 +1,266 @@
+package nl.tudelft.contextproject.util;
+
+import com.esri.core.geometry.Point2D;
+import com.esri.core.geometry.Polygon;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * The WktCodec reads and writes polygons in the Well-known text format without
+ * intermediate objects or regular expressions. Numbers are always written with a
+ * period as decimal separator, regardless of the default locale.
+ *
+ * <p>Polygons read by this codec are the same as the polygons read by the ESRI importer:
+ * the closing point of every ring is dropped, outer rings are clockwise and holes are
+ * counterclockwise. Written polygons follow the OGC convention used by the ESRI exporter.</p>
+ */
+public class WktCodec {
+  private static final String EMPTY = "MULTIPOLYGON EMPTY";
+
+  private final String wkt;
+  private int position;
+
+  // Coordinates of the ring that is being read, as x1, y1, x2, y2, ...
+  private double[] ring;
+  private int ringLength;
+
+  private WktCodec(String wkt) {
+    this.wkt = wkt;
+    this.ring = new double[64];
+  }
+
+  /**
+   * Reads a POLYGON or MULTIPOLYGON.
+   * @param wkt A string in the Well-known text format.
+   * @return The polygon.
+   */
+  public static Polygon read(String wkt) {
+    return new WktCodec(wkt).readPolygon();
+  }
+
+  /**
+   * Writes a polygon as a MULTIPOLYGON.
+   * @param polygon The polygon.
+   * @return The polygon in the Well-known text format.
+   */
+  public static String write(Polygon polygon) {
+    if (polygon.isEmpty()) {
+      return EMPTY;
+    }
+    StringBuilder builder = new StringBuilder(32 + polygon.getPointCount() * 24);
+    builder.append("MULTIPOLYGON (");
+    Point2D point = new Point2D();
+    for (int path = 0; path < polygon.getPathCount(); path++) {
+      if (polygon.isExteriorRing(path)) {
+        builder.append(path == 0 ? "((" : "), ((");
+      } else {
+        builder.append(", (");
+      }
+      // The OGC orientation is the reverse of the ESRI orientation, starting at the same point.
+      int start = polygon.getPathStart(path);
+      int end = polygon.getPathEnd(path);
+      polygon.getXY(start, point);
+      appendPoint(builder, point);
+      for (int i = end - 1; i >= start; i--) {
+        builder.append(", ");
+        polygon.getXY(i, point);
+        appendPoint(builder, point);
+      }
+      builder.append(')');
+    }
+    builder.append("))");
+    return builder.toString();
+  }
+
+  /**
+   * Creates a rectangle from two opposite corners, without going through text.
+   * @param x1 X coordinate of the first corner.
+   * @param y1 Y coordinate of the first corner.
+   * @param x2 X coordinate of the second corner.
+   * @param y2 Y coordinate of the second corner.
+   * @return The rectangle.
+   */
+  public static Polygon rectangle(double x1, double y1, double x2, double y2) {
+    Polygon polygon = new Polygon();
+    addRing(polygon, new double[] {x1, y1, x1, y2, x2, y2, x2, y1}, 8, true);
+    return polygon;
+  }
+
+  private static void appendPoint(StringBuilder builder, Point2D point) {
+    appendNumber(builder, point.x);
+    builder.append(' ');
+    appendNumber(builder, point.y);
+  }
+
+  private static void appendNumber(StringBuilder builder, double value) {
+    if (value == (long) value) {
+      builder.append((long) value);
+    } else {
+      String text = Double.toString(value);
+      if (text.indexOf('E') >= 0) {
+        text = BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+      }
+      builder.append(text);
+    }
+  }
+
+  private Polygon readPolygon() {
+    Polygon polygon = new Polygon();
+    skipWhitespace();
+    if (readKeyword("MULTIPOLYGON")) {
+      readDimensions();
+      if (readKeyword("EMPTY")) {
+        return polygon;
+      }
+      expect('(');
+      do {
+        readRings(polygon);
+      } while (readSeparator());
+      expect(')');
+    } else if (readKeyword("POLYGON")) {
+      readDimensions();
+      if (readKeyword("EMPTY")) {
+        return polygon;
+      }
+      readRings(polygon);
+    } else {
+      throw error("Expected POLYGON or MULTIPOLYGON");
+    }
+    skipWhitespace();
+    if (position != wkt.length()) {
+      throw error("Unexpected text");
+    }
+    return polygon;
+  }
+
+  /**
+   * Skips the Z, M or ZM tag of a geometry. The extra ordinates are ignored when reading the points.
+   */
+  private void readDimensions() {
+    if (!readKeyword("ZM") && !readKeyword("Z")) {
+      readKeyword("M");
+    }
+  }
+
+  /**
+   * Reads a single polygon: an outer ring followed by its holes.
+   */
+  private void readRings(Polygon polygon) {
+    expect('(');
+    boolean exterior = true;
+    do {
+      readRing();
+      addRing(polygon, ring, ringLength, exterior);
+      exterior = false;
+    } while (readSeparator());
+    expect(')');
+  }
+
+  private void readRing() {
+    expect('(');
+    ringLength = 0;
+    do {
+      if (ringLength + 2 > ring.length) {
+        ring = Arrays.copyOf(ring, ring.length * 2);
+      }
+      ring[ringLength++] = readNumber();
+      ring[ringLength++] = readNumber();
+      // Ignore z and m values
+      skipWhitespace();
+      while (position < wkt.length() && wkt.charAt(position) != ',' && wkt.charAt(position) != ')') {
+        readNumber();
+        skipWhitespace();
+      }
+    } while (readSeparator());
+    expect(')');
+    // The closing point is implicit in ESRI polygons.
+    if (ringLength >= 4 && ring[0] == ring[ringLength - 2] && ring[1] == ring[ringLength - 1]) {
+      ringLength -= 2;
+    }
+  }
+
+  /**
+   * Adds a ring to a polygon. Outer rings are made clockwise and holes counterclockwise,
+   * by reversing all points except the first.
+   */
+  private static void addRing(Polygon polygon, double[] coordinates, int length, boolean exterior) {
+    if (length == 0) {
+      return;
+    }
+    double area = 0;
+    for (int i = 0; i < length; i += 2) {
+      int next = (i + 2) % length;
+      area += coordinates[i] * coordinates[next + 1] - coordinates[next] * coordinates[i + 1];
+    }
+    boolean reverse = exterior ? area > 0 : area < 0;
+    polygon.startPath(coordinates[0], coordinates[1]);
+    if (reverse) {
+      for (int i = length - 2; i >= 2; i -= 2) {
+        polygon.lineTo(coordinates[i], coordinates[i + 1]);
+      }
+    } else {
+      for (int i = 2; i < length; i += 2) {
+        polygon.lineTo(coordinates[i], coordinates[i + 1]);
+      }
+    }
+  }
+
+  private double readNumber() {
+    skipWhitespace();
+    int start = position;
+    while (position < wkt.length()) {
+      char character = wkt.charAt(position);
+      if ((character >= '0' && character <= '9') || character == '.' || character == '-'
+          || character == '+' || character == 'e' || character == 'E') {
+        position++;
+      } else {
+        break;
+      }
+    }
+    if (start == position) {
+      throw error("Expected a number");
+    }
+    try {
+      return Double.parseDouble(wkt.substring(start, position));
+    } catch (NumberFormatException e) {
+      throw error("Invalid number " + wkt.substring(start, position));
+    }
+  }
+
+  private boolean readKeyword(String keyword) {
+    skipWhitespace();
+    if (wkt.regionMatches(true, position, keyword, 0, keyword.length())) {
+      position += keyword.length();
+      return true;
+    }
+    return false;
+  }
+
+  private boolean readSeparator() {
+    skipWhitespace();
+    if (position < wkt.length() && wkt.charAt(position) == ',') {
+      position++;
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(char character) {
+    skipWhitespace();
+    if (position >= wkt.length() || wkt.charAt(position) != character) {
+      throw error("Expected '" + character + "'");
+    }
+    position++;
+  }
+
+  private void skipWhitespace() {
+    while (position < wkt.length() && Character.isWhitespace(wkt.charAt(position))) {
+      position++;
+    }
+  }
+
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at position " + position + " in " + wkt);
+  }
+}
@@ -0,0 +1,144 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BootstrapTest {
+  @Mock
+  private Connector connector;
+
+  @Mock
+  private Session session;
+
+  @Mock
+  private Environment environment;
+
+  private Bootstrap bootstrap;
+
+  /**
+   * Sets up a connector that returns a mocked session.
+   */
+  @Before
+  public void setup() {
+    when(connector.getSession()).thenReturn(session);
+    when(session.getEnvironment()).thenReturn(environment);
+    bootstrap = new Bootstrap("testmap", 2, 1);
+  }
+
+  @Test
+  public void runTest() {
+    bootstrap.setUpdateMode(Environment.UpdateMode.STEP);
+    assertEquals(session, bootstrap.run(connector));
+
+    verify(connector).loadUserData();
+    verify(environment).getServerWords(anyCollectionOf(Integer.class));
+    InOrder order = inOrder(connector, environment);
+    order.verify(connector).connectToMap("testmap", 2);
+    order.verify(environment).setUpdateMode(Environment.UpdateMode.STEP);
+    order.verify(environment).allowGameInteraction(true);
+    order.verify(environment).setStakeholder(1);
+  }
+
+  @Test
+  public void stateFileTest() {
+    File stateFile = new File("session.properties");
+    bootstrap.setStateFile(stateFile);
+    bootstrap.run(connector);
+    verify(connector).connectToMap("testmap", 2, stateFile);
+    verify(connector, never()).connectToMap("testmap", 2);
+  }
+
+  @Test
+  public void shareDataTest() {
+    HttpConnectionData data = new HttpConnectionData();
+    when(session.getName()).thenReturn("testmap");
+    when(session.getConnectionData()).thenReturn(data);
+    final List<HttpConnectionData> stakeholderData = new ArrayList<>();
+    doAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) {
+        stakeholderData.add(HttpConnectionData.getBound());
+        return null;
+      }
+    }).when(environment).setStakeholder(1);
+
+    bootstrap.setShareData(true);
+    bootstrap.run(connector);
+    verify(environment).shareStaticData("testmap");
+    verify(environment).shareWorld(data);
+    assertEquals(Arrays.asList(data), stakeholderData);
+    assertNull(HttpConnectionData.getBound());
+  }
+
+  @Test
+  public void timingsTest() {
+    bootstrap.run(connector);
+    assertEquals(new HashSet<>(Arrays.asList("user", "session", "stakeholder", "serverWords")),
+        bootstrap.getTimings().keySet());
+    assertTrue(bootstrap.getTotalMillis() >= 0);
+  }
+
+  @Test(timeout = 5000)
+  public void nestedWorkerTasksTest() {
+    // Steps that wait for worker tasks must not take the workers themselves.
+    PollScheduler scheduler = new PollScheduler(1, 1);
+    PollScheduler previous = PollScheduler.getInstance();
+    PollScheduler.setInstance(scheduler);
+    Answer<Object> nested = new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) {
+        List<Callable<Object>> tasks = new ArrayList<>();
+        tasks.add(new Callable<Object>() {
+          @Override
+          public Object call() {
+            return Thread.currentThread().getName();
+          }
+        });
+        return PollScheduler.getInstance().invokeAll(tasks);
+      }
+    };
+    try {
+      doAnswer(nested).when(connector).loadUserData();
+      doAnswer(nested).when(connector).connectToMap("testmap", 2);
+      assertEquals(session, bootstrap.run(connector));
+    } finally {
+      PollScheduler.setInstance(previous);
+      scheduler.shutdown();
+    }
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void failedStepTest() {
+    doThrow(new RuntimeException("No session")).when(connector).connectToMap("testmap", 2);
+    try {
+      bootstrap.run(connector);
+    } finally {
+      assertTrue(bootstrap.getTimings().containsKey("session"));
+    }
+  }
+}
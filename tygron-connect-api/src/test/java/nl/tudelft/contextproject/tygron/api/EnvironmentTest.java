@@ -1,9 +1,21 @@
 package nl.tudelft.contextproject.tygron.api;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import nl.tudelft.contextproject.tygron.api.Environment.StakeholderReleaseRequest;
+import nl.tudelft.contextproject.tygron.api.actions.PlayerEvent;
+import nl.tudelft.contextproject.tygron.api.loaders.Loader;
 import nl.tudelft.contextproject.tygron.handlers.BooleanResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.PopUpHandler;
+import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.util.PolygonUtil;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -16,6 +28,12 @@ import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(HttpConnection.class)
@@ -76,4 +94,159 @@ public class EnvironmentTest {
     
     assertTrue(env.allowGameInteraction(true));
   }
+  
+  @Test
+  public void startStopTest() {
+    PollScheduler scheduler = new PollScheduler(1);
+    assertFalse(env.isRunning());
+    env.start(scheduler);
+    assertTrue(env.isRunning());
+    env.stop();
+    assertFalse(env.isRunning());
+    scheduler.shutdown();
+  }
+  
+  @Test
+  public void popUpPollTest() {
+    PollScheduler scheduler = new PollScheduler(1);
+    env.start(scheduler);
+    assertEquals(Environment.POPUP_INTERVAL, env.getPopUpPoll().getIntervalMillis());
+    assertTrue(env.getPopUpPoll().getIntervalMillis() < env.getPoll().getIntervalMillis());
+    env.stop();
+    assertNull(env.getPopUpPoll());
+    scheduler.shutdown();
+  }
+  
+  @Test
+  public void popUpPollInStepModeTest() {
+    PollScheduler scheduler = new PollScheduler(1);
+    env.setUpdateMode(Environment.UpdateMode.STEP);
+    env.startPopUps(scheduler);
+    assertFalse(env.isRunning());
+    assertEquals(Environment.POPUP_INTERVAL, env.getPopUpPoll().getIntervalMillis());
+    env.stop();
+    assertNull(env.getPopUpPoll());
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void popUpListenerTest() {
+    PopUpHandler handler = Mockito.mock(PopUpHandler.class);
+    Mockito.when(handler.getVersion()).thenReturn(1, 2, 2, 2);
+    Whitebox.setInternalState(env, "popUpHandler", handler);
+    Runnable listener = Mockito.mock(Runnable.class);
+    env.setPopUpListener(listener);
+
+    // Only loading newer popups runs the listener.
+    env.new PopUpPoller().run();
+    env.new PopUpPoller().run();
+    Mockito.verify(handler, Mockito.times(2)).loadPopUps();
+    Mockito.verify(listener, Mockito.times(1)).run();
+  }
+
+  @Test
+  public void stepModeTest() {
+    PollScheduler scheduler = new PollScheduler(1);
+    env.start(scheduler);
+    env.setUpdateMode(Environment.UpdateMode.STEP);
+    assertFalse(env.isRunning());
+    env.start(scheduler);
+    assertFalse(env.isRunning());
+    assertEquals(Environment.UpdateMode.STEP, env.getUpdateMode());
+    scheduler.shutdown();
+  }
+  
+  @Test
+  public void invalidateInStepModeTest() {
+    env.setUpdateMode(Environment.UpdateMode.STEP);
+    env.invalidate(PlayerEvent.MAP_BUY_LAND);
+    env.invalidate(PlayerEvent.POPUP_ANSWER);
+    Set<Class<?>> expected = new HashSet<>();
+    expected.add(LandMap.class);
+    expected.add(StakeholderList.class);
+    assertEquals(expected, env.getInvalidated());
+  }
+
+  @Test
+  public void worldReconcileTest() throws InterruptedException {
+    HttpConnectionData data = new HttpConnectionData();
+    data.setSessionId(4343);
+    env.setUpdateMode(Environment.UpdateMode.STEP);
+    env.putLoader(new FixedLoader<>(BuildingList.class, new BuildingList()));
+    env.putLoader(new FixedLoader<>(LandMap.class, new LandMap()));
+    env.shareWorld(data);
+    try {
+      SlotWorld world = env.getWorld();
+      while (world.getPoll().getRuns() == 0) {
+        Thread.sleep(5);
+      }
+      world.getPoll().cancel();
+      env.speculateDemolition(PolygonUtil.makeRectangle(0, 0, 10, 10));
+      assertFalse(env.getOverlay().isEmpty());
+
+      // The world loads the buildings again, this environment only reads the snapshot.
+      world.reload(BuildingList.class);
+      env.getProjectedBuildings();
+      assertTrue(env.getOverlay().isEmpty());
+      assertEquals(1, env.getOverlay().getConfirmed());
+    } finally {
+      env.leaveWorld();
+    }
+  }
+
+  @Test
+  public void worldLoadersTest() {
+    HttpConnectionData data = new HttpConnectionData();
+    data.setSessionId(4344);
+    env.setUpdateMode(Environment.UpdateMode.STEP);
+    FixedLoader<BuildingList> own = new FixedLoader<>(BuildingList.class, new BuildingList());
+    env.putLoader(own);
+    env.shareWorld(data);
+    Environment other = new Environment();
+    other.shareWorld(data);
+    try {
+      env.getWorld().getPoll().cancel();
+      env.leaveWorld();
+      // The world reloads a loader of its own, not the one this environment reloads again.
+      assertSame(own, env.getLoader(BuildingList.class));
+      assertEquals(1, own.copies.size());
+      assertNotSame(own, own.copies.get(0));
+      assertSame(own.copies.get(0).value, SlotWorld.get(4344).get(BuildingList.class));
+    } finally {
+      other.leaveWorld();
+    }
+  }
+
+  private static class FixedLoader<T> extends Loader<T> {
+    private final Class<T> dataClass;
+    private final T value;
+    private final List<FixedLoader<T>> copies = new ArrayList<>();
+
+    FixedLoader(Class<T> dataClass, T value) {
+      this.dataClass = dataClass;
+      this.value = value;
+    }
+
+    @Override
+    protected T load() {
+      return value;
+    }
+
+    @Override
+    public Loader<T> newLoader() {
+      FixedLoader<T> copy = new FixedLoader<>(dataClass, value);
+      copies.add(copy);
+      return copy;
+    }
+
+    @Override
+    public Class<T> getDataClass() {
+      return dataClass;
+    }
+
+    @Override
+    public RefreshInterval getRefreshInterval() {
+      return RefreshInterval.NORMAL;
+    }
+  }
 }
@@ -0,0 +1,127 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.Stakeholder;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class FreeLandModelTest {
+  FreeLandModel model;
+  Stakeholder stakeholder;
+  JSONArray lands;
+  JSONArray buildings;
+
+  /**
+   * Create two lands of 10 by 10 with one building on each of them.
+   */
+  @Before
+  public void setup() {
+    model = new FreeLandModel();
+    stakeholder = mock(Stakeholder.class);
+    when(stakeholder.getId()).thenReturn(1);
+    when(stakeholder.getOwnedLands()).thenReturn(Arrays.asList(0, 1));
+
+    lands = new JSONArray();
+    lands.put(item("Land", 0, 0, 0, 10, 10));
+    lands.put(item("Land", 1, 10, 0, 20, 10));
+    buildings = new JSONArray();
+    buildings.put(item("Building", 0, 0, 0, 2, 2));
+    buildings.put(item("Building", 1, 12, 0, 14, 2));
+  }
+
+  private JSONObject item(String type, int id, double x1, double y1, double x2, double y2) {
+    JSONObject item = new JSONObject();
+    item.put("id", id);
+    item.put("version", 1);
+    item.put("ownerID", 1);
+    item.put("name", "Item " + id);
+    item.put("functionID", 0);
+    item.put("floors", 1);
+    item.put("state", "READY");
+    item.put("polygons", PolygonUtil.toString(PolygonUtil.makeRectangle(x1, y1, x2, y2)));
+    return new JSONObject().put(type, item);
+  }
+
+  private Polygon compute() {
+    return new FreeLandModel().getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+  }
+
+  @Test
+  public void firstComputationTest() {
+    Polygon free = model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    assertEquals(192, free.calculateArea2D(), 0.0001);
+    assertEquals(1, model.getComputations());
+  }
+
+  @Test
+  public void unchangedTest() {
+    LandMap landMap = new LandMap(lands);
+    BuildingList buildingList = new BuildingList(buildings);
+    Polygon free = model.getFreeLand(stakeholder, landMap, buildingList);
+    assertSame(free, model.getFreeLand(stakeholder, landMap, buildingList));
+    assertEquals(1, model.getHits());
+  }
+
+  @Test
+  public void addBuildingTest() {
+    model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    buildings.put(item("Building", 2, 5, 5, 15, 7));
+    Polygon free = model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    assertEquals(172, free.calculateArea2D(), 0.0001);
+    assertEquals(1, model.getUpdates());
+    assertEquals(compute().calculateArea2D(), free.calculateArea2D(), 0.0001);
+  }
+
+  @Test
+  public void demolishBuildingTest() {
+    model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    JSONObject building = buildings.getJSONObject(0).getJSONObject("Building");
+    building.put("version", 2);
+    building.put("state", "NOTHING");
+    Polygon free = model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    assertEquals(196, free.calculateArea2D(), 0.0001);
+    assertEquals(1, model.getUpdates());
+  }
+
+  @Test
+  public void transferLandTest() {
+    model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    when(stakeholder.getOwnedLands()).thenReturn(Arrays.asList(0));
+    Polygon free = model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    assertEquals(96, free.calculateArea2D(), 0.0001);
+    assertEquals(compute().calculateArea2D(), free.calculateArea2D(), 0.0001);
+  }
+
+  @Test
+  public void purchaseTest() {
+    model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    lands.put(item("Land", 2, 20, 0, 30, 10));
+    when(stakeholder.getOwnedLands()).thenReturn(Arrays.asList(0, 1, 2));
+    Polygon free = model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    assertEquals(292, free.calculateArea2D(), 0.0001);
+
+    // Selling one parcel and changing another keeps the rest of the owned land.
+    JSONObject changed = item("Land", 1, 10, 0, 20, 5);
+    changed.getJSONObject("Land").put("version", 2);
+    lands.put(1, changed);
+    when(stakeholder.getOwnedLands()).thenReturn(Arrays.asList(1, 2));
+    free = model.getFreeLand(stakeholder, new LandMap(lands), new BuildingList(buildings));
+    assertEquals(compute().calculateArea2D(), free.calculateArea2D(), 0.0001);
+    assertEquals(146, free.calculateArea2D(), 0.0001);
+    assertEquals(1, model.getComputations());
+  }
+}
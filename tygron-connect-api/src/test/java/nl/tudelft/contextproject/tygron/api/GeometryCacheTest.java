@@ -0,0 +1,123 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.tygron.objects.Stakeholder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class GeometryCacheTest {
+  GeometryCache cache;
+  Stakeholder stakeholder;
+  LandMap lands;
+  BuildingList buildings;
+  int computations;
+
+  GeometryCache.Computation computation = new GeometryCache.Computation() {
+    @Override
+    public Polygon compute() {
+      computations++;
+      return new Polygon();
+    }
+  };
+
+  /**
+   * Creates a cache with room for two results.
+   */
+  @Before
+  public void setup() {
+    cache = new GeometryCache(2);
+    stakeholder = stakeholder(1);
+    lands = new LandMap();
+    buildings = new BuildingList();
+    computations = 0;
+  }
+
+  private Stakeholder stakeholder(int id) {
+    Stakeholder result = mock(Stakeholder.class);
+    when(result.getId()).thenReturn(id);
+    when(result.getOwnedLands()).thenReturn(Arrays.asList(0, 1));
+    return result;
+  }
+
+  @Test
+  public void hitTest() {
+    Polygon first = cache.get("allLand", stakeholder, lands, buildings, computation);
+    Polygon second = cache.get("allLand", stakeholder, lands, buildings, computation);
+    assertSame(first, second);
+    assertEquals(1, computations);
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  public void keyTest() {
+    cache.get("allLand", stakeholder, lands, buildings, computation);
+    cache.get("availableLand", stakeholder, lands, buildings, computation);
+    when(stakeholder.getOwnedLands()).thenReturn(Arrays.asList(0));
+    cache.get("allLand", stakeholder, lands, buildings, computation);
+    assertEquals(3, computations);
+  }
+
+  @Test
+  public void invalidationTest() {
+    cache.get("allLand", stakeholder, lands, buildings, computation);
+    cache.get("allLand", stakeholder, lands, new BuildingList(), computation);
+    cache.get("allLand", stakeholder, new LandMap(), buildings, computation);
+    assertEquals(3, computations);
+    assertEquals(2, cache.getInvalidations());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void landsOnlyTest() {
+    cache.get("allLand", stakeholder, lands, computation);
+    cache.get("allLand", stakeholder, lands, computation);
+    cache.get("availableLand", stakeholder, lands, buildings, computation);
+    cache.get("availableLand", stakeholder, lands, new BuildingList(), computation);
+    // A result that only depends on the lands survives a building reload.
+    cache.get("allLand", stakeholder, lands, computation);
+    assertEquals(3, computations);
+    cache.get("allLand", stakeholder, new LandMap(), computation);
+    assertEquals(4, computations);
+  }
+
+  @Test
+  public void evictionTest() {
+    cache.get("allLand", stakeholder(1), lands, buildings, computation);
+    cache.get("allLand", stakeholder(2), lands, buildings, computation);
+    cache.get("allLand", stakeholder(1), lands, buildings, computation);
+    cache.get("allLand", stakeholder(3), lands, buildings, computation);
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+
+    // Stakeholder 2 was used least recently, so it was evicted.
+    cache.get("allLand", stakeholder(1), lands, buildings, computation);
+    assertEquals(3, computations);
+    cache.get("allLand", stakeholder(2), lands, buildings, computation);
+    assertEquals(4, computations);
+  }
+
+  @Test
+  public void clearTest() {
+    cache.get("allLand", stakeholder, lands, buildings, computation);
+    cache.clear();
+    cache.get("allLand", stakeholder, lands, buildings, computation);
+    assertEquals(2, computations);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidCapacityTest() {
+    new GeometryCache(0);
+  }
+}
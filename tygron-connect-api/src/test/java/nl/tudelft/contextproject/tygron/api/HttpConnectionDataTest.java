@@ -1,10 +1,16 @@
 package nl.tudelft.contextproject.tygron.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 public class HttpConnectionDataTest {
 
   HttpConnectionData dataObj;
@@ -33,5 +39,42 @@ public class HttpConnectionDataTest {
     assertEquals(0,dataObj.getSessionId());
     dataObj.setSessionId(1337);
     assertEquals(1337,dataObj.getSessionId());
-  }    
+  }
+
+  @Test
+  public void bindTest() {
+    assertNull(HttpConnectionData.getBound());
+    assertNull(HttpConnectionData.bind(dataObj));
+    assertSame(dataObj, HttpConnectionData.getBound());
+    assertSame(dataObj, HttpConnectionData.bind(null));
+    assertNull(HttpConnectionData.getBound());
+  }
+
+  @Test
+  public void propagateTest() throws Exception {
+    HttpConnectionData.bind(dataObj);
+    Callable<HttpConnectionData> task;
+    try {
+      task = HttpConnectionData.propagate(new Callable<HttpConnectionData>() {
+        @Override
+        public HttpConnectionData call() {
+          return HttpConnectionData.getBound();
+        }
+      });
+    } finally {
+      HttpConnectionData.bind(null);
+    }
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertSame(dataObj, executor.submit(task).get());
+      assertNull(executor.submit(new Callable<HttpConnectionData>() {
+        @Override
+        public HttpConnectionData call() {
+          return HttpConnectionData.getBound();
+        }
+      }).get());
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
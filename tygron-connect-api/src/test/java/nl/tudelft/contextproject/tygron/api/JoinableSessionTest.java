@@ -5,10 +5,12 @@ import static org.junit.Assert.assertEquals;
 import nl.tudelft.contextproject.tygron.CachedFileReader;
 import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -84,4 +86,18 @@ public class JoinableSessionTest {
     Session target = joinableSession.join();
     assertEquals("testmap",target.getName());
   }
+
+  @Test
+  public void rejoinSessionTest() {
+    joinableSession.setId(2);
+    joinableSession.join("oldtoken");
+    Mockito.verify(connection).execute(Mockito.eq(joinSessionEvent), Mockito.eq(CallType.POST),
+        Mockito.any(JsonObjectResultHandler.class), Mockito.argThat(new ArgumentMatcher<JSONArray>() {
+          @Override
+          public boolean matches(Object argument) {
+            JSONArray request = (JSONArray) argument;
+            return request.getInt(0) == 2 && "oldtoken".equals(request.getString(4));
+          }
+        }));
+  }
 }
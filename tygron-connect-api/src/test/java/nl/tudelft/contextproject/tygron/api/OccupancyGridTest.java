@@ -0,0 +1,115 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.esri.core.geometry.Envelope2D;
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+public class OccupancyGridTest {
+  OccupancyGrid grid;
+  JSONArray lands;
+  JSONArray buildings;
+  Envelope2D map;
+
+  /**
+   * Create a map of 100 by 100 with two lands and a building.
+   */
+  @Before
+  public void setup() {
+    grid = new OccupancyGrid(100, 1);
+    map = new Envelope2D(0, 0, 100, 100);
+    lands = new JSONArray();
+    lands.put(item("Land", 0, 1, 0, 0, 50, 100));
+    lands.put(item("Land", 1, 2, 50, 0, 100, 100));
+    buildings = new JSONArray();
+    buildings.put(item("Building", 0, 1, 0, 0, 10, 10));
+    grid.update(new LandMap(lands), new BuildingList(buildings));
+  }
+
+  private JSONObject item(String type, int id, int owner, double x1, double y1, double x2, double y2) {
+    JSONObject item = new JSONObject();
+    item.put("id", id);
+    item.put("version", 1);
+    item.put("ownerID", owner);
+    item.put("name", "Item " + id);
+    item.put("functionID", 0);
+    item.put("floors", 1);
+    item.put("state", "READY");
+    item.put("polygons", PolygonUtil.toString(PolygonUtil.makeRectangle(x1, y1, x2, y2)));
+    return new JSONObject().put(type, item);
+  }
+
+  @Test
+  public void cellTest() {
+    assertEquals(1, grid.getOwner(5, 5));
+    assertEquals(2, grid.getOwner(75, 5));
+    assertEquals(-1, grid.getOwner(150, 5));
+    assertTrue(grid.isOccupied(5, 5));
+    assertFalse(grid.isOccupied(15, 5));
+  }
+
+  @Test
+  public void freeAreaTest() {
+    assertEquals(4900, grid.getFreeArea(1, map), 0.0001);
+    assertEquals(5000, grid.getFreeArea(2, map), 0.0001);
+    assertEquals(0, grid.getFreeArea(1, new Envelope2D(0, 0, 10, 10)), 0.0001);
+  }
+
+  @Test
+  public void incrementalUpdateTest() {
+    buildings.put(item("Building", 1, 2, 60, 60, 70, 80));
+    buildings.getJSONObject(0).getJSONObject("Building").put("version", 2).put("state", "NOTHING");
+    grid.update(new LandMap(lands), new BuildingList(buildings));
+    assertEquals(5000, grid.getFreeArea(1, map), 0.0001);
+    assertEquals(4800, grid.getFreeArea(2, map), 0.0001);
+
+    lands.getJSONObject(0).getJSONObject("Land").put("version", 2).put("ownerID", 2);
+    grid.update(new LandMap(lands), new BuildingList(buildings));
+    assertEquals(0, grid.getFreeArea(1, map), 0.0001);
+    assertEquals(9800, grid.getFreeArea(2, map), 0.0001);
+  }
+
+  @Test
+  public void holeTest() {
+    OccupancyGrid holeGrid = new OccupancyGrid(100, 1);
+    JSONArray holeLands = new JSONArray();
+    holeLands.put(item("Land", 0, 1, 0, 0, 20, 20));
+    holeLands.getJSONObject(0).getJSONObject("Land").put("polygons",
+        "MULTIPOLYGON (((0 0, 0 20, 20 20, 20 0, 0 0), (5 5, 15 5, 15 15, 5 15, 5 5)))");
+    holeGrid.update(new LandMap(holeLands), new BuildingList());
+    assertEquals(300, holeGrid.getFreeArea(1, map), 0.0001);
+  }
+
+  @Test
+  public void findFreeSpotsTest() {
+    List<Envelope2D> spots = grid.findFreeSpots(1, 20, 20, 3);
+    assertEquals(3, spots.size());
+    assertEquals(10, spots.get(0).xmin, 0.0001);
+    assertTrue(grid.findFreeSpots(1, 60, 10, 1).isEmpty());
+  }
+
+  @Test
+  public void findFreeSpotTest() {
+    Polygon free = PolygonUtil.polygonDifference(PolygonUtil.makeRectangle(0, 0, 50, 100),
+        PolygonUtil.makeRectangle(0, 0, 10, 10));
+    Polygon spot = grid.findFreeSpot(1, 30, 30, free);
+    assertNotNull(spot);
+    assertTrue(PolygonUtil.polygonContains(free, spot));
+    assertNull(grid.findFreeSpot(1, 60, 60, free));
+  }
+}
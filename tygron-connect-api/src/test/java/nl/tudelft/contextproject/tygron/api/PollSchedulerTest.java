@@ -0,0 +1,116 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PollSchedulerTest {
+  PollScheduler scheduler;
+
+  @Before
+  public void setup() {
+    scheduler = new PollScheduler(2);
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void runsRepeatedlyTest() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(3);
+    PollScheduler.Poll poll = scheduler.schedule("test", new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+      }
+    }, 1);
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    poll.cancel();
+    assertTrue(poll.isCancelled());
+    assertTrue(poll.getRuns() >= 2);
+  }
+
+  @Test
+  public void survivesFailuresTest() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(2);
+    PollScheduler.Poll poll = scheduler.schedule("failing", new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+        throw new RuntimeException("Expected failure");
+      }
+    }, 1);
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+    poll.cancel();
+    assertTrue(poll.getFailures() >= 1);
+  }
+
+  @Test
+  public void cancelStopsPollTest() throws InterruptedException {
+    final AtomicInteger counter = new AtomicInteger();
+    PollScheduler.Poll poll = scheduler.schedule("cancelled", new Runnable() {
+      @Override
+      public void run() {
+        counter.incrementAndGet();
+      }
+    }, 10000);
+    Thread.sleep(100);
+    poll.cancel();
+    Thread.sleep(100);
+    assertEquals(1, counter.get());
+    assertEquals(10000, poll.getIntervalMillis());
+    assertEquals("cancelled", poll.getName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidPoolSizeTest() {
+    new PollScheduler(0);
+  }
+
+  @Test
+  public void sharedInstanceTest() {
+    PollScheduler.setInstance(scheduler);
+    assertEquals(scheduler, PollScheduler.getInstance());
+    PollScheduler.setInstance(null);
+  }
+
+  @Test
+  public void invokeAllTest() {
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          return value;
+        }
+      });
+    }
+    assertEquals(Arrays.asList(0, 1, 2, 3, 4), scheduler.invokeAll(tasks));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void invokeAllFailureTest() {
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    tasks.add(new Callable<Integer>() {
+      @Override
+      public Integer call() {
+        throw new IllegalStateException("Expected failure");
+      }
+    });
+    scheduler.invokeAll(tasks);
+  }
+}
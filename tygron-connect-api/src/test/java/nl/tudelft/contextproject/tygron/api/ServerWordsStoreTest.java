@@ -0,0 +1,161 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import nl.tudelft.contextproject.tygron.CachedFileReader;
+import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
+import nl.tudelft.contextproject.tygron.handlers.objects.ServerWordsResultHandler;
+import nl.tudelft.contextproject.tygron.objects.ServerWords;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(HttpConnection.class)
+public class ServerWordsStoreTest {
+  ServerWordsStore store;
+  ServerWords allWords;
+
+  @Mock
+  HttpConnection connection;
+
+  /**
+   * Serves single server words and the whole list from the cached file.
+   */
+  @Before
+  public void setup() {
+    PowerMockito.mockStatic(HttpConnection.class);
+    BDDMockito.given(HttpConnection.getInstance()).willReturn(connection);
+
+    String file = "/serverResponses/testmap/lists/serverWords.json";
+    final JSONArray words = new JSONArray(CachedFileReader.getFileContents(file));
+    allWords = new ServerWords(words);
+    Mockito.when(connection.execute(Mockito.matches("lists/serverwords/[0-9]+/"), Mockito.eq(CallType.GET),
+        Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true))).thenAnswer(new Answer<JSONObject>() {
+          @Override
+          public JSONObject answer(InvocationOnMock invocation) {
+            String url = (String) invocation.getArguments()[0];
+            int id = Integer.parseInt(url.split("/")[2]);
+            return words.getJSONObject(id).getJSONObject("ServerWord");
+          }
+        });
+    Mockito.when(connection.execute(Mockito.eq("lists/serverwords/"), Mockito.eq(CallType.GET),
+        Mockito.any(ServerWordsResultHandler.class), Mockito.eq(true))).thenReturn(allWords);
+
+    store = new ServerWordsStore();
+  }
+
+  @Test
+  public void selectiveTest() {
+    ServerWords words = store.getWords(Arrays.asList(92, 93));
+    assertEquals(2, words.size());
+    assertEquals(allWords.get(92), words.get(92));
+    assertEquals(2, store.size());
+    Mockito.verify(connection, Mockito.times(2)).execute(Mockito.matches("lists/serverwords/[0-9]+/"),
+        Mockito.eq(CallType.GET), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true));
+  }
+
+  @Test
+  public void loadOnceTest() {
+    store.getWords(Arrays.asList(92, 93));
+    assertEquals(allWords.get(93), store.get(93));
+    store.getWords(Arrays.asList(93, 94));
+    Mockito.verify(connection, Mockito.times(3)).execute(Mockito.matches("lists/serverwords/[0-9]+/"),
+        Mockito.eq(CallType.GET), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true));
+  }
+
+  @Test
+  public void fullListTest() {
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i <= ServerWordsStore.FULL_LIST_THRESHOLD; i++) {
+      ids.add(i);
+    }
+    assertEquals(ids.size(), store.getWords(ids).size());
+    assertEquals(allWords.size(), store.size());
+    Mockito.verify(connection, Mockito.never()).execute(Mockito.matches("lists/serverwords/[0-9]+/"),
+        Mockito.eq(CallType.GET), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true));
+  }
+
+  @Test
+  public void failedWordTest() {
+    Mockito.when(connection.execute(Mockito.eq("lists/serverwords/93/"), Mockito.eq(CallType.GET),
+        Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true))).thenReturn(null);
+    try {
+      store.getWords(Arrays.asList(92, 93));
+      fail("A word that could not be loaded should fail");
+    } catch (RuntimeException e) {
+      assertEquals("Could not load server words [93]", e.getMessage());
+    }
+    // The failed word is asked for again.
+    Mockito.when(connection.execute(Mockito.eq("lists/serverwords/93/"), Mockito.eq(CallType.GET),
+        Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true))).thenReturn(new JSONObject()
+            .put("id", 93).put("translation", "again"));
+    assertEquals("again", store.get(93));
+  }
+
+  @Test
+  public void projectTest() {
+    Environment first = new Environment();
+    Environment second = new Environment();
+    Environment other = new Environment();
+    first.shareStaticData("project");
+    second.shareStaticData("project");
+    other.shareStaticData("other");
+    try {
+      assertSame(first.get(ServerWordsStore.class), second.get(ServerWordsStore.class));
+      assertNotSame(first.get(ServerWordsStore.class), other.get(ServerWordsStore.class));
+    } finally {
+      first.releaseStaticData();
+      second.releaseStaticData();
+      other.releaseStaticData();
+    }
+  }
+
+  @Test(timeout = 5000)
+  public void loadOutsideLockTest() throws Exception {
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    Mockito.when(connection.execute(Mockito.eq("lists/serverwords/92/"), Mockito.eq(CallType.GET),
+        Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true))).thenAnswer(new Answer<JSONObject>() {
+          @Override
+          public JSONObject answer(InvocationOnMock invocation) throws InterruptedException {
+            loading.countDown();
+            release.await();
+            return new JSONObject().put("id", 92).put("translation", "slow");
+          }
+        });
+    Thread slow = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        store.get(92);
+      }
+    });
+    slow.start();
+    loading.await();
+
+    // Another word is loaded while the slow word is still loading.
+    assertEquals(allWords.get(93), store.get(93));
+    release.countDown();
+    slow.join();
+    assertEquals("slow", store.get(92));
+  }
+}
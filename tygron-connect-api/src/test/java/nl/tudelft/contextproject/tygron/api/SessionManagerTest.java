@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 
 import nl.tudelft.contextproject.tygron.CachedFileReader;
 
+import nl.tudelft.contextproject.tygron.handlers.BooleanResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.IntegerResultHandler;
 import nl.tudelft.contextproject.tygron.handlers.JsonArrayResultHandler;
 
@@ -31,6 +32,7 @@ public class SessionManagerTest {
   
   String joinableSessionsUrl = "services/event/IOServicesEventType/GET_JOINABLE_SESSIONS/";
   String startNewSessionUrl = "services/event/IOServicesEventType/START_NEW_SESSION/";
+  String killSessionUrl = "services/event/IOServicesEventType/KILL_SESSION/";
   String joinableSessions = CachedFileReader.getFileContents("/serverResponses/joinableSessions.json");
   
   /**
@@ -68,4 +70,22 @@ public class SessionManagerTest {
     int targetSlot = sessionManager.startSessionSlot("testmap");
     assertEquals(1337,targetSlot);
   }
+
+  @Test(timeout = 5000)
+  public void pooledSessionTest() throws InterruptedException {
+    Mockito.when(
+        connection.execute(Mockito.eq(killSessionUrl), Mockito.eq(CallType.POST),
+            Mockito.any(BooleanResultHandler.class), Mockito.any(Session.KillSessionRequest.class)
+           )).thenReturn(true);
+    SessionPool pool = sessionManager.createSessionPool("othermap", 1);
+    try {
+      while (pool.getReady() < 1) {
+        Thread.sleep(10);
+      }
+      assertEquals(1337, sessionManager.findOrCreateSession("othermap", -1).getId());
+      assertEquals(1, pool.getHits());
+    } finally {
+      pool.shutdown();
+    }
+  }
 }
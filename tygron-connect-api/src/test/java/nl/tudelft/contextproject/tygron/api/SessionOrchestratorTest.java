@@ -0,0 +1,169 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SessionOrchestratorTest {
+  @Mock
+  private SessionManager sessionManager;
+
+  @Mock
+  private JoinableSession joinable;
+
+  private PollScheduler scheduler;
+  private SessionOrchestrator orchestrator;
+  private final List<HttpConnectionData> stepData = Collections.synchronizedList(new ArrayList<HttpConnectionData>());
+
+  /**
+   * Creates an orchestrator on its own scheduler.
+   */
+  @Before
+  public void setup() {
+    scheduler = new PollScheduler(1);
+    orchestrator = new SessionOrchestrator(sessionManager, scheduler, 2);
+    when(sessionManager.findOrCreateSession("testmap", -1)).thenReturn(joinable);
+  }
+
+  @After
+  public void shutdown() {
+    orchestrator.shutdown();
+    scheduler.shutdown();
+  }
+
+  private Session mockSession(int slot) {
+    Session session = mock(Session.class);
+    Environment environment = mock(Environment.class);
+    HttpConnectionData data = new HttpConnectionData();
+    data.setSessionId(slot);
+    when(session.getId()).thenReturn(slot);
+    when(session.getName()).thenReturn("testmap");
+    when(session.getEnvironment()).thenReturn(environment);
+    when(session.getConnectionData()).thenReturn(data);
+    doAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) {
+        stepData.add(HttpConnectionData.getBound());
+        return null;
+      }
+    }).when(environment).step();
+    return session;
+  }
+
+  @Test
+  public void openTest() {
+    final Session session = mockSession(1);
+    when(joinable.join()).thenAnswer(new Answer<Session>() {
+      @Override
+      public Session answer(InvocationOnMock invocation) {
+        // Joining happens with connection data of its own.
+        assertNotNull(HttpConnectionData.getBound());
+        return session;
+      }
+    });
+
+    assertSame(session, orchestrator.open("testmap", -1));
+    assertNull(HttpConnectionData.getBound());
+    verify(session.getEnvironment()).setUpdateMode(Environment.UpdateMode.STEP);
+    verify(session.getEnvironment()).shareStaticData("testmap");
+    verify(session.getEnvironment()).shareWorld(session.getConnectionData());
+    assertEquals(1, orchestrator.getSessions().size());
+    assertNotNull(orchestrator.getPoll());
+  }
+
+  @Test
+  public void popUpsTest() {
+    Session session = mockSession(1);
+    when(joinable.join()).thenReturn(session);
+    Environment environment = session.getEnvironment();
+    final List<HttpConnectionData> popUpData = new ArrayList<>();
+    doAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) {
+        popUpData.add(HttpConnectionData.getBound());
+        return null;
+      }
+    }).when(environment).startPopUps(scheduler);
+
+    // Popups are checked for between the rounds, with the connection data of the session.
+    orchestrator.open("testmap", -1);
+    assertEquals(Collections.singletonList(session.getConnectionData()), popUpData);
+  }
+
+  /**
+   * Waits for the first update round, which starts right away, and stops the rounds after it.
+   */
+  private void stopPolling() throws InterruptedException {
+    while (orchestrator.getPoll().getRuns() == 0) {
+      Thread.sleep(5);
+    }
+    orchestrator.getPoll().cancel();
+    stepData.clear();
+  }
+
+  @Test
+  public void stepTest() throws InterruptedException {
+    Session first = mockSession(1);
+    Session second = mockSession(2);
+    when(joinable.join()).thenReturn(first, second);
+    orchestrator.open("testmap", -1);
+    orchestrator.open("testmap", -1);
+    stopPolling();
+
+    orchestrator.step();
+    assertEquals(2, stepData.size());
+    assertTrue(stepData.contains(first.getConnectionData()));
+    assertTrue(stepData.contains(second.getConnectionData()));
+  }
+
+  @Test
+  public void failedStepTest() throws InterruptedException {
+    Session first = mockSession(1);
+    Session second = mockSession(2);
+    when(joinable.join()).thenReturn(first, second);
+    orchestrator.open("testmap", -1);
+    orchestrator.open("testmap", -1);
+    stopPolling();
+    Environment failing = first.getEnvironment();
+    doThrow(new RuntimeException("Server gone")).when(failing).step();
+
+    orchestrator.step();
+    assertEquals(Collections.singletonList(second.getConnectionData()), stepData);
+  }
+
+  @Test
+  public void closeTest() {
+    Session session = mockSession(1);
+    when(joinable.join()).thenReturn(session);
+    when(session.closeSession(false)).thenReturn(true);
+    orchestrator.open("testmap", -1);
+
+    assertTrue(orchestrator.close(session));
+    verify(session.getEnvironment()).releaseStaticData();
+    verify(session.getEnvironment()).leaveWorld();
+    assertTrue(orchestrator.getSessions().isEmpty());
+    assertFalse(orchestrator.close(session));
+  }
+}
@@ -0,0 +1,102 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SessionPoolTest {
+  SessionManager manager;
+  SessionPool pool;
+
+  /**
+   * Creates a pool of two sessions on a manager that starts slots 1, 2, 3 and so on.
+   */
+  @Before
+  public void setup() {
+    manager = mock(SessionManager.class);
+    when(manager.startSessionSlot("map")).thenReturn(1, 2, 3, 4);
+    pool = new SessionPool(manager, "map", 2);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  private void awaitReady(int amount) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while ((pool.getReady() < amount || pool.getStarting() > 0) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void prewarmTest() throws InterruptedException {
+    pool.start();
+    awaitReady(2);
+    assertEquals(2, pool.getReady());
+    assertEquals(1, pool.take());
+    assertEquals(1, pool.getHits());
+
+    awaitReady(2);
+    assertEquals(3, pool.getStarted());
+    assertEquals(2, pool.take());
+    assertEquals(3, pool.take());
+  }
+
+  @Test
+  public void coldTest() {
+    assertEquals(1, pool.take());
+    assertEquals(1, pool.getMisses());
+    assertEquals(0, pool.getReady());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void failureTest() {
+    when(manager.startSessionSlot("map")).thenReturn(-1);
+    try {
+      pool.take();
+    } finally {
+      assertEquals(1, pool.getFailures());
+    }
+  }
+
+  @Test
+  public void shutdownTest() throws InterruptedException {
+    pool.start();
+    awaitReady(2);
+    pool.shutdown();
+    assertEquals(0, pool.getReady());
+    verify(manager).killSessionSlot(1);
+    verify(manager).killSessionSlot(2);
+  }
+
+  @Test
+  public void retryTest() throws InterruptedException {
+    when(manager.startSessionSlot("map")).thenReturn(-1, -1, 1, 2);
+    pool.setRetryDelay(10);
+    pool.start();
+    awaitReady(2);
+    assertEquals(2, pool.getReady());
+    assertEquals(2, pool.getFailures());
+  }
+
+  @Test
+  public void metricsTest() throws InterruptedException {
+    pool.start();
+    awaitReady(2);
+    assertTrue(pool.getAverageStartTime() >= 0);
+    assertTrue(pool.toString().contains("2/2 ready"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidSizeTest() {
+    new SessionPool(manager, "map", 0);
+  }
+}
@@ -0,0 +1,58 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+
+public class SessionStateTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void saveLoadTest() {
+    File file = new File(folder.getRoot(), "session.properties");
+    new SessionState(3, "testmap", "client", "server", 1, 42).save(file);
+    new SessionState(4, "testmap", "client2", "server2", 2, 43).save(file);
+
+    SessionState state = SessionState.load(file);
+    assertEquals(4, state.getSlotId());
+    assertEquals("testmap", state.getMapName());
+    assertEquals("client2", state.getClientToken());
+    assertEquals("server2", state.getServerToken());
+    assertEquals(2, state.getStakeholderId());
+    assertEquals(43, state.getPopUpVersion());
+  }
+
+  @Test
+  public void ownerOnlyTest() throws IOException {
+    Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    File file = new File(folder.getRoot(), "session.properties");
+    new SessionState(3, "testmap", "client", "server", 1, 42).save(file);
+    assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(file.toPath()));
+  }
+
+  @Test
+  public void missingFileTest() {
+    assertNull(SessionState.load(new File(folder.getRoot(), "missing.properties")));
+  }
+
+  @Test
+  public void invalidFileTest() throws IOException {
+    File file = folder.newFile("session.properties");
+    try (FileWriter writer = new FileWriter(file)) {
+      writer.write("slot=notanumber\n");
+    }
+    assertNull(SessionState.load(file));
+  }
+}
@@ -1,6 +1,7 @@
 package nl.tudelft.contextproject.tygron.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
@@ -64,6 +65,15 @@ public class SessionTest {
     assertEquals(true,session.killSession(0));
   }
 
+  @Test
+  public void killSessionLeavesWorldTest() {
+    session.getEnvironment().shareWorld(session.getConnectionData());
+    session.getEnvironment().getWorld().getPoll().cancel();
+    session.killSession(session.getId());
+    assertNull(session.getEnvironment().getWorld());
+    assertNull(SlotWorld.get(session.getId()));
+  }
+
   @Test
   public void creationTest() {
     Session sess = new Session();
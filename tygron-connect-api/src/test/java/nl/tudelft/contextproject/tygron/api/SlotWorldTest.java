@@ -0,0 +1,155 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import nl.tudelft.contextproject.tygron.api.loaders.Loader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SlotWorldTest {
+  private static final int SLOT = 4242;
+
+  private HttpConnectionData data;
+  private CountingLoader loader;
+  private SlotWorld world;
+
+  /**
+   * Attaches a world and waits for its first refresh, then stops its poll.
+   */
+  @Before
+  public void setup() throws InterruptedException {
+    data = new HttpConnectionData();
+    data.setSessionId(SLOT);
+    loader = new CountingLoader();
+    world = SlotWorld.attach(data, loaders(loader));
+    while (world.getPoll().getRuns() == 0) {
+      Thread.sleep(5);
+    }
+    world.getPoll().cancel();
+  }
+
+  @After
+  public void detach() {
+    while (SlotWorld.get(SLOT) != null) {
+      SlotWorld.get(SLOT).detach(SlotWorld.get(SLOT).getConnectionData());
+    }
+  }
+
+  private Collection<Loader<?>> loaders(Loader<?> loader) {
+    return Collections.<Loader<?>>singletonList(loader);
+  }
+
+  @Test
+  public void attachTest() {
+    CountingLoader other = new CountingLoader();
+    HttpConnectionData otherData = otherSession();
+    assertSame(world, SlotWorld.attach(otherData, loaders(other)));
+    assertEquals(2, world.getReferences());
+    assertEquals(0, other.loads.get());
+    assertSame(world.get(StringBuilder.class), world.get(StringBuilder.class));
+
+    world.detach(data);
+    assertSame(world, SlotWorld.get(SLOT));
+    world.detach(otherData);
+    assertNull(SlotWorld.get(SLOT));
+    assertTrue(world.getPoll().isCancelled());
+  }
+
+  @Test
+  public void connectionDataTest() {
+    world.reload(StringBuilder.class);
+    assertSame(data, loader.boundData);
+  }
+
+  @Test
+  public void switchConnectionDataTest() {
+    HttpConnectionData otherData = otherSession();
+    SlotWorld.attach(otherData, loaders(new CountingLoader()));
+    world.detach(data);
+    assertSame(otherData, world.getConnectionData());
+    world.reload(StringBuilder.class);
+    assertSame(otherData, loader.boundData);
+
+    // Detaching a session that is not attached changes nothing.
+    world.detach(data);
+    assertEquals(1, world.getReferences());
+  }
+
+  private HttpConnectionData otherSession() {
+    HttpConnectionData otherData = new HttpConnectionData();
+    otherData.setSessionId(SLOT);
+    otherData.setClientToken("other");
+    return otherData;
+  }
+
+  @Test
+  public void snapshotLoaderTest() {
+    SlotWorld.SnapshotLoader<StringBuilder> view = new SlotWorld.SnapshotLoader<>(world, StringBuilder.class);
+    assertEquals(Loader.RefreshInterval.NEVER, view.getRefreshInterval());
+    assertSame(world.get(StringBuilder.class), view.get());
+    StringBuilder reloaded = view.reload();
+    assertSame(reloaded, world.get(StringBuilder.class));
+  }
+
+  @Test
+  public void coalesceTest() throws InterruptedException {
+    int before = loader.loads.get();
+    loader.block = new Semaphore(0);
+    final CountDownLatch done = new CountDownLatch(3);
+    for (int i = 0; i < 3; i++) {
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          world.reload(StringBuilder.class);
+          done.countDown();
+        }
+      });
+      thread.start();
+      // Wait until the first thread is loading, and the others wait for it.
+      while (i == 0 ? loader.block.getQueueLength() == 0 : thread.getState() != Thread.State.BLOCKED) {
+        Thread.sleep(1);
+      }
+    }
+    // The first load started before the others asked, so one more load serves both.
+    loader.block.release(2);
+    done.await();
+    assertEquals(before + 2, loader.loads.get());
+  }
+
+  private static class CountingLoader extends Loader<StringBuilder> {
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile Semaphore block;
+    private volatile HttpConnectionData boundData;
+
+    @Override
+    protected StringBuilder load() {
+      boundData = HttpConnectionData.getBound();
+      Semaphore semaphore = block;
+      if (semaphore != null) {
+        semaphore.acquireUninterruptibly();
+      }
+      return new StringBuilder("load " + loads.incrementAndGet());
+    }
+
+    @Override
+    public Class<StringBuilder> getDataClass() {
+      return StringBuilder.class;
+    }
+
+    @Override
+    public RefreshInterval getRefreshInterval() {
+      return RefreshInterval.NORMAL;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package nl.tudelft.contextproject.tygron.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.objects.Building;
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.Land;
+import nl.tudelft.contextproject.tygron.objects.LandMap;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpeculativeOverlayTest {
+  SpeculativeOverlay overlay;
+  Polygon land;
+  Polygon plot;
+
+  /**
+   * Create an overlay and some land.
+   */
+  @Before
+  public void setup() {
+    overlay = new SpeculativeOverlay();
+    land = PolygonUtil.makeRectangle(0, 0, 10, 10);
+    plot = PolygonUtil.makeRectangle(0, 0, 5, 10);
+  }
+
+  @Test
+  public void constructionTest() {
+    Building building = overlay.addConstruction(1, 2, plot);
+    assertTrue(building.getId() < 0);
+    assertEquals(SpeculativeOverlay.PROVISIONAL_STATE, building.getState());
+
+    BuildingList projected = overlay.projectBuildings(new BuildingList());
+    assertEquals(1, projected.size());
+    assertEquals(50, overlay.projectAvailableLand(land, land, new BuildingList()).calculateArea2D(), 0.001);
+  }
+
+  @Test
+  public void demolitionTest() {
+    Polygon free = PolygonUtil.polygonDifference(land, plot);
+    Building building = new Building(1, "Building", 1, plot, 1, "READY");
+    overlay.addDemolition(plot);
+    assertTrue(overlay.isDemolishing(building));
+    assertEquals(100, overlay.projectAvailableLand(free, land, new BuildingList()).calculateArea2D(), 0.001);
+  }
+
+  @Test
+  public void confirmTest() {
+    overlay.addConstruction(1, 2, plot);
+    BuildingList loaded = new BuildingList();
+    loaded.add(new Building(5, "Building", 1, plot, 2, "READY"));
+    overlay.reconcile(loaded, System.nanoTime(), new LandMap(), 0, 1);
+    assertTrue(overlay.isEmpty());
+    assertEquals(1, overlay.getConfirmed());
+    assertEquals(0, overlay.getRolledBack());
+  }
+
+  @Test
+  public void projectDemolitionTest() {
+    BuildingList loaded = new BuildingList();
+    loaded.add(new Building(1, "Building", 1, plot, 1, "READY"));
+    loaded.add(new Building(2, "Building", 1, PolygonUtil.makeRectangle(6, 0, 10, 10), 1, "READY"));
+    overlay.addDemolition(plot);
+
+    BuildingList projected = overlay.projectBuildings(loaded);
+    assertEquals(1, projected.size());
+    assertEquals(2, projected.get(0).getId());
+  }
+
+  @Test
+  public void purchaseWithBuildingTest() {
+    Polygon bought = PolygonUtil.makeRectangle(10, 0, 20, 10);
+    BuildingList loaded = new BuildingList();
+    loaded.add(new Building(1, "Building", 1, PolygonUtil.makeRectangle(10, 0, 12, 10), 1, "READY"));
+    overlay.addPurchase(bought);
+    // The building of the seller stays, so only the rest of the land becomes free.
+    assertEquals(180, overlay.projectAvailableLand(land, land, loaded).calculateArea2D(), 0.001);
+  }
+
+  @Test
+  public void buyableLandTest() {
+    overlay.addPurchase(plot);
+    assertEquals(50, overlay.projectBuyableLand(land).calculateArea2D(), 0.001);
+  }
+
+  @Test
+  public void confirmPurchaseTest() {
+    overlay.addPurchase(plot);
+    LandMap lands = new LandMap();
+    lands.put(1, land(1, 1, land));
+    overlay.reconcile(new BuildingList(), System.nanoTime(), lands, System.nanoTime(), 1);
+    assertTrue(overlay.isEmpty());
+    assertEquals(1, overlay.getConfirmed());
+  }
+
+  @Test
+  public void refusedPurchaseTest() {
+    overlay.addPurchase(plot);
+    LandMap lands = new LandMap();
+    lands.put(1, land(1, 2, land));
+    overlay.reconcile(new BuildingList(), System.nanoTime(), lands, System.nanoTime(), 1);
+    assertTrue(overlay.isEmpty());
+    assertEquals(0, overlay.getConfirmed());
+    assertEquals(1, overlay.getRolledBack());
+  }
+
+  @Test
+  public void demolitionConfirmTest() {
+    overlay.addDemolition(plot);
+    long loadStarted = System.nanoTime();
+    BuildingList loaded = new BuildingList();
+    overlay.reconcile(loaded, loadStarted, new LandMap(), 0, 1);
+    assertEquals(1, overlay.getConfirmed());
+
+    overlay.addDemolition(plot);
+    loaded.add(new Building(1, "Building", 1, plot, 1, "READY"));
+    overlay.reconcile(loaded, System.nanoTime(), new LandMap(), 0, 1);
+    assertEquals(1, overlay.getRolledBack());
+  }
+
+  private Land land(int id, int ownerId, Polygon polygon) {
+    JSONObject object = new JSONObject();
+    object.put("id", id);
+    object.put("version", 1);
+    object.put("ownerID", ownerId);
+    object.put("polygons", PolygonUtil.toString(polygon));
+    return new Land(object);
+  }
+
+  @Test
+  public void keepUntilLoadedTest() {
+    long loadStarted = System.nanoTime();
+    overlay.addPurchase(plot);
+    overlay.reconcile(new BuildingList(), loadStarted, new LandMap(), loadStarted, 1);
+    assertFalse(overlay.isEmpty());
+  }
+
+  @Test
+  public void rollbackTest() {
+    overlay = new SpeculativeOverlay(0);
+    overlay.addConstruction(1, 2, plot);
+    overlay.addDemolition(plot);
+    overlay.reconcile(new BuildingList(), 0, new LandMap(), 0, 1);
+    assertEquals(0, overlay.size());
+    assertEquals(2, overlay.getRolledBack());
+  }
+}
@@ -4,22 +4,28 @@ package nl.tudelft.contextproject.tygron.api.actions;
 import com.esri.core.geometry.Polygon;
 import nl.tudelft.contextproject.tygron.api.Environment;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
+import nl.tudelft.contextproject.tygron.api.SpeculativeOverlay;
 import nl.tudelft.contextproject.tygron.objects.Stakeholder;
 import nl.tudelft.contextproject.tygron.objects.StakeholderList;
+import nl.tudelft.contextproject.util.PolygonSimplifier;
 import nl.tudelft.contextproject.util.PolygonUtil;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.Map;
+
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyDouble;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(PowerMockRunner.class)
@@ -43,6 +49,8 @@ public class BuyLandActionTest extends LandTest {
     when(environment.getAvailableLand(eq(stakeholder2))).thenReturn(land2part);
 
     when(environment.getSuitableLand(any(Polygon.class), anyDouble())).thenReturn(land1part);
+    when(environment.getBuyableLand()).thenCallRealMethod();
+    when(environment.getOverlay()).thenReturn(new SpeculativeOverlay());
 
     action = new BuyLandAction(environment);
   }
@@ -56,6 +64,14 @@ public class BuyLandActionTest extends LandTest {
     Assert.assertFalse(result);
   }
 
+  @Test
+  public void testPendingPurchaseNotBuyable() {
+    SpeculativeOverlay overlay = new SpeculativeOverlay();
+    overlay.addPurchase(land2part);
+    when(environment.getOverlay()).thenReturn(overlay);
+    Assert.assertEquals(0, environment.getBuyableLand().get(2).calculateArea2D(), 0.0001);
+  }
+
   @Test
   public void testBuyTooLittleLand() {
     action = new BuyLandAction(environment);
@@ -69,4 +85,26 @@ public class BuyLandActionTest extends LandTest {
     boolean result = action.buyLand(10d, 0d);
     Assert.assertTrue(result);
   }
+
+  @Test
+  public void testSpeculateSentLand() {
+    PolygonSimplifier.setInstance(new PolygonSimplifier(0, 0, 5));
+    try {
+      Assert.assertTrue(action.buyLand(10d, 0d));
+    } finally {
+      PolygonSimplifier.setInstance(null);
+    }
+    // The 8 by 8 suitable land is sent snapped to a 10 by 10 grid.
+    ArgumentCaptor<Polygon> speculated = ArgumentCaptor.forClass(Polygon.class);
+    verify(environment).speculatePurchase(speculated.capture());
+    Assert.assertEquals(100, speculated.getValue().calculateArea2D(), 0.001);
+  }
+
+  @Test
+  public void testBuyableLandPerOwner() {
+    when(environment.getStakeholderId()).thenReturn(1);
+    Map<Integer, Polygon> buyable = environment.getBuyableLand();
+    Assert.assertEquals(1, buyable.size());
+    Assert.assertTrue(PolygonUtil.polygonEquals(land2part, buyable.get(2)));
+  }
 }
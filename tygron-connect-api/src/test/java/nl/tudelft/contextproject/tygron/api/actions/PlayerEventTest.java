@@ -0,0 +1,31 @@
+package nl.tudelft.contextproject.tygron.api.actions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import nl.tudelft.contextproject.tygron.objects.BuildingList;
+import nl.tudelft.contextproject.tygron.objects.indicators.IndicatorList;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class PlayerEventTest {
+
+  @Test
+  public void urlTest() {
+    assertEquals("event/PlayerEventType/MAP_SELL_LAND/", PlayerEvent.MAP_SELL_LAND.getUrl());
+  }
+
+  @Test
+  public void invalidatesTest() {
+    assertEquals(Arrays.asList(BuildingList.class, IndicatorList.class),
+        PlayerEvent.BUILDING_PLAN_CONSTRUCTION.getInvalidates());
+    assertTrue(PlayerEvent.POPUP_ANSWER.getInvalidates().isEmpty());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void unmodifiableTest() {
+    PlayerEvent.MAP_BUY_LAND.getInvalidates().clear();
+  }
+}
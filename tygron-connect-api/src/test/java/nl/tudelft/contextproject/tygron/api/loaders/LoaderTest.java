@@ -1,6 +1,7 @@
 package nl.tudelft.contextproject.tygron.api.loaders;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 
 import nl.tudelft.contextproject.tygron.CachedFileReader;
 import nl.tudelft.contextproject.tygron.api.CallType;
@@ -59,6 +60,15 @@ public class LoaderTest {
     assertEquals(ActionList.class, loader.getDataClass());
   }
   
+  @Test
+  public void newLoaderTest() {
+    loader.get();
+    Loader<ActionList> other = loader.newLoader();
+    assertNotSame(loader, other);
+    assertEquals(ActionListLoader.class, other.getClass());
+    assertEquals(0, other.getLoadStarted());
+  }
+
   @Test
   public void getRefreshInterval() {
     assertEquals("NEVER", loader.getRefreshInterval().toString());
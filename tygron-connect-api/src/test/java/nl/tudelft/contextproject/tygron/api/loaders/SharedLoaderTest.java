@@ -0,0 +1,78 @@
+package nl.tudelft.contextproject.tygron.api.loaders;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SharedLoaderTest {
+  private static final String PROJECT = "sharedloadertest";
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private final SharedLoader<StringBuilder> first = new SharedLoader<>(new CountingLoader());
+  private final SharedLoader<StringBuilder> second = new SharedLoader<>(new CountingLoader());
+
+  @After
+  public void detach() {
+    first.detach();
+    second.detach();
+  }
+
+  @Test
+  public void unsharedTest() {
+    assertNull(first.getProject());
+    assertNotSame(first.get(), second.get());
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  public void sharedTest() {
+    first.attach(PROJECT);
+    second.attach(PROJECT);
+    assertEquals(2, SharedDataCache.getInstance().getReferences(PROJECT, StringBuilder.class));
+
+    assertSame(first.get(), second.get());
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void releaseTest() {
+    first.attach(PROJECT);
+    second.attach(PROJECT);
+    StringBuilder shared = first.get();
+
+    first.detach();
+    assertEquals(1, SharedDataCache.getInstance().getReferences(PROJECT, StringBuilder.class));
+    // Data loaded earlier stays cached in the loader.
+    assertSame(shared, first.get());
+
+    second.detach();
+    assertEquals(0, SharedDataCache.getInstance().getReferences(PROJECT, StringBuilder.class));
+    second.attach(PROJECT);
+    assertNotSame(shared, second.reload());
+    assertEquals(2, loads.get());
+  }
+
+  private class CountingLoader extends Loader<StringBuilder> {
+    @Override
+    protected StringBuilder load() {
+      return new StringBuilder("load " + loads.incrementAndGet());
+    }
+
+    @Override
+    public Class<StringBuilder> getDataClass() {
+      return StringBuilder.class;
+    }
+
+    @Override
+    public RefreshInterval getRefreshInterval() {
+      return RefreshInterval.NEVER;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import nl.tudelft.contextproject.tygron.CachedFileReader;
+import nl.tudelft.contextproject.tygron.objects.PopUpHandler.EventValue;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class PopUpClassifierTest {
+  PopUpClassifier classifier;
+  List<PopUp> popUps;
+
+  /**
+   * Creates a classifier from the cached server words and loads the cached popups.
+   */
+  @Before
+  public void setup() {
+    String wordsFile = "/serverResponses/testmap/lists/serverWords.json";
+    classifier = new PopUpClassifier(new ServerWords(new JSONArray(CachedFileReader.getFileContents(wordsFile))));
+
+    String popUpFile = "/serverResponses/testmap/lists/popUp.json";
+    JSONArray items = new JSONObject(CachedFileReader.getFileContents(popUpFile)).getJSONObject("items")
+        .getJSONObject("POPUPS").getJSONArray("[Lnl.tytech.core.data.item.Item;");
+    popUps = new ArrayList<>();
+    for (int i = 0; i < items.length(); i++) {
+      PopUp popUp = new PopUp(items.getJSONObject(i));
+      classifier.classify(popUp);
+      popUps.add(popUp);
+    }
+  }
+
+  @Test
+  public void eventTest() {
+    List<EventValue> expected = Arrays.asList(EventValue.LAND_BUY__REQUEST_SENT,
+        EventValue.LAND_BUY_REQUEST_RECEIVED, EventValue.LAND_BUY_REQUEST_RECEIVED,
+        EventValue.LAND_SELL_REQUEST_RECEIVED, EventValue.LAND_TRANSACTION_APPROVED,
+        EventValue.LAND_TRANSACION_REFUSED, EventValue.PERMIT_REQUEST_APPROVED,
+        EventValue.LAND_SELL_REQUEST_SENT, EventValue.PLAN_PERFORM_ASK, EventValue.PERMIT_REQUEST_REFUSED,
+        EventValue.PERMIT_REQUEST_SENT, EventValue.ZONING_DIVERGED, EventValue.PERMIT_REQUEST_ASK,
+        EventValue.PERMIT_REQUEST_RECEIVED);
+    List<EventValue> events = new ArrayList<>();
+    for (PopUp popUp : popUps) {
+      events.add(popUp.getEvent());
+    }
+    assertEquals(expected, events);
+  }
+
+  @Test
+  public void parameterTest() {
+    assertEquals(5489, popUps.get(1).getSurface());
+    assertEquals(1097806, popUps.get(1).getCost());
+    assertEquals(6300, popUps.get(3).getSurface());
+    assertEquals(2519989, popUps.get(3).getCost());
+    assertEquals(2519989, popUps.get(4).getCost());
+  }
+
+  @Test
+  public void noMatchTest() {
+    assertNull(classifier.getEvent("Something else happened."));
+  }
+
+  @Test
+  public void longTextTest() {
+    StringBuilder text = new StringBuilder("<p>");
+    for (int i = 0; i < 100000; i++) {
+      text.append("<p>a ");
+    }
+    assertNull(classifier.getEvent(text.toString()));
+  }
+
+  @Test
+  public void numbersTest() {
+    assertEquals(Arrays.asList("5.489", "1.097.806", "."),
+        PopUpClassifier.getNumbers("Buy 5.489 m² for 1.097.806,-. "));
+    assertEquals(Arrays.asList("12"), PopUpClassifier.getNumbers("a 12 b 3"));
+  }
+}
@@ -1,26 +1,38 @@
 package nl.tudelft.contextproject.tygron.objects;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import nl.tudelft.contextproject.tygron.CachedFileReader;
 import nl.tudelft.contextproject.tygron.api.CallType;
 import nl.tudelft.contextproject.tygron.api.Environment;
 import nl.tudelft.contextproject.tygron.api.HttpConnection;
+import nl.tudelft.contextproject.tygron.api.actions.PlayerEvent;
 import nl.tudelft.contextproject.tygron.handlers.JsonObjectResultHandler;
+import nl.tudelft.contextproject.tygron.objects.PopUpHandler.EventValue;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(HttpConnection.class)
 public class PopUpTest {
@@ -56,7 +68,7 @@ public class PopUpTest {
     String serverWordsContents = CachedFileReader.getFileContents(serverWordsFile);
     JSONArray serverWordsResult = new JSONArray(serverWordsContents);
     serverWords = new ServerWords(serverWordsResult);
-    Mockito.when(environment.get(ServerWords.class)).thenReturn(serverWords);
+    Mockito.when(environment.getServerWords(Mockito.anyCollectionOf(Integer.class))).thenReturn(serverWords);
     
     // Load buildings
     String buildingsFile = "/serverResponses/testmap/lists/building.json";
@@ -138,5 +150,142 @@ public class PopUpTest {
     PopUp popUp = popUpHandler.getList().get(1);
     assertEquals("Housing Corporation wants to purchase land", popUp.getTitle());
   }
-  
+
+  @Test
+  public void answerOnceTest() {
+    popUpHandler.loadPopUps();
+    PopUp popUp = popUpHandler.getList().get(1);
+    assertTrue(popUpHandler.isAnswered(popUp));
+    Mockito.verify(connection, Mockito.times(1)).execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.argThat(new AnswerMatcher(popUp.getId())));
+
+    popUpHandler.loadPopUps();
+    assertEquals(1, popUpHandler.requestsOpen());
+    Mockito.verify(connection, Mockito.times(1)).execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.argThat(new AnswerMatcher(popUp.getId())));
+  }
+
+  @Test
+  public void answeredBoundedTest() {
+    popUpHandler.loadPopUps();
+    PopUp popUp = popUpHandler.getList().get(1);
+    assertTrue(popUpHandler.getAnsweredCount() > 1);
+
+    // A later update drops the popups of the earlier one, which still count as answered.
+    JSONObject update = new JSONObject(CachedFileReader.getFileContents("/serverResponses/testmap/lists/popUp.json"));
+    JSONArray items = update.getJSONObject("items").getJSONObject("POPUPS")
+        .getJSONArray("[Lnl.tytech.core.data.item.Item;");
+    JSONObject changed = items.getJSONObject(1);
+    changed.getJSONObject("PopupData").put("version", popUpHandler.getVersion() + 1);
+    JSONArray single = new JSONArray().put(changed);
+    update.getJSONObject("items").getJSONObject("POPUPS").put("[Lnl.tytech.core.data.item.Item;", single);
+    Mockito.when(connection.getUpdate(Mockito.any(JsonObjectResultHandler.class),
+        Mockito.eq(true), Mockito.any(JSONObject.class))).thenReturn(update);
+    popUpHandler.loadPopUps();
+    assertEquals(1, popUpHandler.getAnsweredCount());
+    assertTrue(popUpHandler.isAnswered(popUp));
+    Mockito.verify(connection, Mockito.times(2)).execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.argThat(new AnswerMatcher(popUp.getId())));
+  }
+
+  @Test
+  public void policyTest() {
+    popUpHandler.setPolicy(EventValue.LAND_BUY_REQUEST_RECEIVED, new PopUpPolicy() {
+      @Override
+      public int decide(PopUp popUp) {
+        return 1;
+      }
+    });
+    popUpHandler.loadPopUps();
+    int popUpId = popUpHandler.getList().get(1).getId();
+    Mockito.verify(connection, Mockito.timeout(1000)).execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.argThat(new AnswerMatcher(popUpId, 1)));
+  }
+
+  @Test
+  public void policyTimeoutTest() {
+    final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+    Mockito.when(connection.execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.any(JSONArray.class))).thenAnswer(new Answer<JSONObject>() {
+          @Override
+          public JSONObject answer(InvocationOnMock invocation) {
+            threads.add(Thread.currentThread().getName());
+            return null;
+          }
+        });
+    popUpHandler.setDecisionTimeout(50);
+    popUpHandler.setPolicy(EventValue.LAND_BUY_REQUEST_RECEIVED, new PopUpPolicy() {
+      @Override
+      public int decide(PopUp popUp) {
+        try {
+          Thread.sleep(10000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return 1;
+      }
+    });
+    popUpHandler.loadPopUps();
+    int popUpId = popUpHandler.getList().get(1).getId();
+    Mockito.verify(connection, Mockito.timeout(1000)).execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.argThat(new AnswerMatcher(popUpId, 0)));
+    Mockito.verify(connection, Mockito.never()).execute(Mockito.eq(PlayerEvent.POPUP_ANSWER.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.argThat(new AnswerMatcher(popUpId, 1)));
+    // The default answer is sent from a worker, not from a poll thread.
+    assertFalse(threads.isEmpty());
+    for (String thread : threads) {
+      assertFalse(thread, thread.startsWith("tygron-poller"));
+    }
+  }
+
+  @Test
+  public void policyIgnoreTest() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(1);
+    popUpHandler.setPolicy(EventValue.ZONING_DIVERGED, new PopUpPolicy() {
+      @Override
+      public int decide(PopUp popUp) {
+        latch.countDown();
+        return PopUpPolicy.IGNORE;
+      }
+    });
+    popUpHandler.loadPopUps();
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    Mockito.verify(connection, Mockito.never()).execute(Mockito.eq(PlayerEvent.ZONE_ADD_FUNCTION_CATEGORY.getUrl()),
+        Mockito.eq(CallType.POST), Mockito.any(JsonObjectResultHandler.class), Mockito.eq(true),
+        Mockito.any(JSONArray.class));
+  }
+
+  /**
+   * Matches the request that answers a single popup.
+   */
+  static class AnswerMatcher extends ArgumentMatcher<JSONArray> {
+    private final int popUpId;
+    private final int answer;
+
+    AnswerMatcher(int popUpId) {
+      this(popUpId, -1);
+    }
+
+    AnswerMatcher(int popUpId, int answer) {
+      this.popUpId = popUpId;
+      this.answer = answer;
+    }
+
+    @Override
+    public boolean matches(Object argument) {
+      if (!(argument instanceof JSONArray)) {
+        return false;
+      }
+      JSONArray request = (JSONArray) argument;
+      return request.getInt(1) == popUpId && (answer < 0 || request.getInt(2) == answer);
+    }
+  }
 }
@@ -0,0 +1,70 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.esri.core.geometry.Polygon;
+
+import nl.tudelft.contextproject.tygron.CachedFileReader;
+import nl.tudelft.contextproject.util.PolygonUtil;
+
+import org.json.JSONArray;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpatialIndexTest {
+  List<Building> buildings;
+  SpatialIndex<Building> index;
+
+  /**
+   * Create a grid of buildings of 1 by 1 with a gap of 1 between them.
+   */
+  @Before
+  public void setup() {
+    buildings = new ArrayList<>();
+    int id = 0;
+    for (int x = 0; x < 40; x++) {
+      for (int y = 0; y < 40; y++) {
+        Polygon polygon = PolygonUtil.makeRectangle(x * 2, y * 2, x * 2 + 1, y * 2 + 1);
+        buildings.add(new Building(id++, "Building", 0, polygon, 1, "READY"));
+      }
+    }
+    index = new SpatialIndex<>(buildings);
+  }
+
+  @Test
+  public void sizeTest() {
+    assertEquals(1600, index.size());
+  }
+
+  @Test
+  public void intersectingTest() {
+    Polygon area = PolygonUtil.makeRectangle(10.5, 10.5, 14.5, 12.5);
+    List<Building> expected = new ArrayList<>();
+    for (Building building : buildings) {
+      if (PolygonUtil.polygonIntersects(building.getPolygon(), area)) {
+        expected.add(building);
+      }
+    }
+    List<Building> result = index.intersecting(area);
+    assertEquals(6, result.size());
+    assertTrue(result.containsAll(expected));
+  }
+
+  @Test
+  public void emptyAreaTest() {
+    assertTrue(index.search(PolygonUtil.makeRectangle(1.2, 1.2, 1.8, 1.8)).isEmpty());
+    assertTrue(index.search(new Polygon()).isEmpty());
+  }
+
+  @Test
+  public void buildingListTest() {
+    String contents = CachedFileReader.getFileContents("/serverResponses/testmap/lists/building.json");
+    BuildingList list = new BuildingList(new JSONArray(contents));
+    assertEquals(list.size(), list.getIndex().size());
+    assertTrue(list.getIndex() == list.getIndex());
+  }
+}
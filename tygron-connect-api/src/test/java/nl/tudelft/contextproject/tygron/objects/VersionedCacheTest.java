@@ -0,0 +1,64 @@
+package nl.tudelft.contextproject.tygron.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import nl.tudelft.contextproject.tygron.CachedFileReader;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VersionedCacheTest {
+  String contents;
+  VersionedCache<Building> cache;
+  BuildingList first;
+
+  /**
+   * Load the buildings once.
+   */
+  @Before
+  public void setup() {
+    String file = "/serverResponses/testmap/lists/building.json";
+    contents = CachedFileReader.getFileContents(file);
+    cache = new VersionedCache<>();
+    first = new BuildingList(new JSONArray(contents), cache);
+  }
+
+  @Test
+  public void firstLoadTest() {
+    assertEquals(0, cache.getHits());
+    assertEquals(3, cache.getMisses());
+    assertEquals(3, cache.size());
+  }
+
+  @Test
+  public void reuseUnchangedTest() {
+    BuildingList second = new BuildingList(new JSONArray(contents), cache);
+    for (int i = 0; i < first.size(); i++) {
+      assertSame(first.get(i), second.get(i));
+    }
+    assertEquals(3, cache.getHits());
+  }
+
+  @Test
+  public void parseChangedTest() {
+    JSONArray changed = new JSONArray(contents);
+    JSONObject building = changed.getJSONObject(0).getJSONObject("Building");
+    building.put("version", building.getInt("version") + 1);
+    BuildingList second = new BuildingList(changed, cache);
+    assertNotSame(first.get(0), second.get(0));
+    assertSame(first.get(1), second.get(1));
+    assertEquals(first.get(0).getVersion() + 1, second.get(0).getVersion());
+  }
+
+  @Test
+  public void forgetRemovedTest() {
+    JSONArray smaller = new JSONArray(contents);
+    smaller.remove(0);
+    new BuildingList(smaller, cache);
+    assertEquals(2, cache.size());
+  }
+}
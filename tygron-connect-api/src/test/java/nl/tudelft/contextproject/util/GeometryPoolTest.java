@@ -0,0 +1,91 @@
+package nl.tudelft.contextproject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class GeometryPoolTest {
+
+  @After
+  public void tearDown() {
+    GeometryPool.setInstance(null);
+  }
+
+  private List<Callable<Integer>> squares(int count) {
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          return value * value;
+        }
+      });
+    }
+    return tasks;
+  }
+
+  @Test
+  public void orderTest() {
+    GeometryPool pool = new GeometryPool(4);
+    assertEquals(Arrays.asList(0, 1, 4, 9, 16, 25), pool.invokeAll(squares(6)));
+    pool.shutdown();
+  }
+
+  @Test
+  public void sequentialTest() {
+    GeometryPool pool = new GeometryPool(1);
+    final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          threads.add(Thread.currentThread());
+          return 0;
+        }
+      });
+    }
+    pool.invokeAll(tasks);
+    assertEquals(Collections.singleton(Thread.currentThread()), threads);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failureTest() {
+    GeometryPool pool = new GeometryPool(2);
+    List<Callable<Integer>> tasks = squares(2);
+    tasks.add(new Callable<Integer>() {
+      @Override
+      public Integer call() {
+        throw new IllegalStateException();
+      }
+    });
+    pool.invokeAll(tasks);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidParallelismTest() {
+    new GeometryPool(0);
+  }
+
+  @Test
+  public void instanceTest() {
+    GeometryPool pool = new GeometryPool(2);
+    GeometryPool.setInstance(pool);
+    assertSame(pool, GeometryPool.getInstance());
+    GeometryPool.setInstance(null);
+    assertNotSame(pool, GeometryPool.getInstance());
+    assertEquals(Runtime.getRuntime().availableProcessors(), GeometryPool.getInstance().getParallelism());
+  }
+}
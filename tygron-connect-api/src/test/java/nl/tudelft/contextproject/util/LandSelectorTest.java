@@ -0,0 +1,69 @@
+package nl.tudelft.contextproject.util;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.esri.core.geometry.Polygon;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LandSelectorTest {
+  LandSelector selector;
+
+  @Before
+  public void setup() {
+    selector = new LandSelector(0.10);
+  }
+
+  @Test
+  public void selectTest() {
+    Polygon land = PolygonUtil.makeRectangle(0, 0, 100, 20);
+    Polygon selected = selector.select(land, 150);
+    assertTrue(selector.withinMargin(selected, 150));
+    assertTrue(PolygonUtil.polygonContains(land, selected));
+  }
+
+  @Test
+  public void wholeLandTest() {
+    Polygon land = PolygonUtil.makeRectangle(0, 0, 10, 10);
+    assertTrue(PolygonUtil.polygonEquals(land, selector.select(land, 95)));
+  }
+
+  @Test
+  public void notEnoughLandTest() {
+    assertNull(selector.select(PolygonUtil.makeRectangle(0, 0, 10, 10), 200));
+    assertNull(selector.select(new Polygon(), 1));
+  }
+
+  @Test
+  public void singleParcelTest() {
+    List<Polygon> parcels = new ArrayList<>();
+    parcels.add(PolygonUtil.makeRectangle(0, 0, 10, 10));
+    parcels.add(PolygonUtil.makeRectangle(20, 0, 25, 4));
+    parcels.add(PolygonUtil.makeRectangle(40, 0, 80, 40));
+    Polygon land = PolygonUtil.polygonUnion(parcels);
+    Polygon selected = selector.select(land, 50);
+    assertTrue(selector.withinMargin(selected, 50));
+    assertTrue(PolygonUtil.polygonContains(parcels.get(0), selected));
+  }
+
+  @Test
+  public void fragmentedLandTest() {
+    List<Polygon> parcels = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      parcels.add(PolygonUtil.makeRectangle(i * 3, 0, i * 3 + 1, 1));
+    }
+    Polygon land = PolygonUtil.polygonUnion(parcels);
+    assertTrue(selector.withinMargin(selector.select(land, 20), 20));
+  }
+
+  @Test
+  public void deterministicTest() {
+    Polygon land = PolygonUtil.createPolygonFromWkt("MULTIPOLYGON (((0 0, 0 10, 4 10, 4 4, 10 4, 10 0, 0 0)))");
+    assertTrue(PolygonUtil.polygonEquals(selector.select(land, 30), selector.select(land, 30)));
+  }
+}
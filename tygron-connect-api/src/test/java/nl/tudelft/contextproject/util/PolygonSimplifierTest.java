@@ -0,0 +1,90 @@
+package nl.tudelft.contextproject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import com.esri.core.geometry.Polygon;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PolygonSimplifierTest {
+
+  @After
+  public void tearDown() {
+    PolygonSimplifier.setInstance(null);
+  }
+
+  /**
+   * Creates a square of 10 by 10 with many nearly collinear vertices on its bottom edge.
+   */
+  private Polygon jaggedSquare() {
+    Polygon polygon = new Polygon();
+    polygon.startPath(0, 0);
+    polygon.lineTo(0, 10);
+    polygon.lineTo(10, 10);
+    polygon.lineTo(10, 0);
+    for (int i = 99; i > 0; i--) {
+      polygon.lineTo(i / 10.0, i % 2 == 0 ? 0.001 : -0.001);
+    }
+    return polygon;
+  }
+
+  @Test
+  public void disabledTest() {
+    Polygon polygon = jaggedSquare();
+    assertFalse(PolygonSimplifier.NONE.isEnabled());
+    assertSame(polygon, PolygonSimplifier.getInstance().simplify(polygon));
+  }
+
+  @Test
+  public void removeVerticesTest() {
+    Polygon result = new PolygonSimplifier(0.01, 0, 0).simplify(jaggedSquare());
+    assertEquals(4, result.getPointCount());
+    assertEquals(100, result.calculateArea2D(), 0.1);
+  }
+
+  @Test
+  public void removeSliversTest() {
+    List<Polygon> polygons = new ArrayList<>();
+    polygons.add(PolygonUtil.makeRectangle(0, 0, 10, 10));
+    polygons.add(PolygonUtil.makeRectangle(20, 0, 30, 0.01));
+    Polygon result = new PolygonSimplifier(0, 1, 0).simplify(PolygonUtil.polygonUnion(polygons));
+    assertEquals(1, result.getPathCount());
+    assertEquals(100, result.calculateArea2D(), 0.0001);
+  }
+
+  @Test
+  public void fillSmallHolesTest() {
+    Polygon holes = PolygonUtil.polygonDifference(PolygonUtil.makeRectangle(0, 0, 10, 10),
+        PolygonUtil.makeRectangle(1, 1, 1.1, 1.1));
+    holes = PolygonUtil.polygonDifference(holes, PolygonUtil.makeRectangle(4, 4, 6, 6));
+    Polygon result = new PolygonSimplifier(0, 1, 0).simplify(holes);
+    assertEquals(2, result.getPathCount());
+    assertEquals(96, result.calculateArea2D(), 0.0001);
+  }
+
+  @Test
+  public void snapToGridTest() {
+    Polygon result = new PolygonSimplifier(0, 0, 0.1).simplify(PolygonUtil.makeRectangle(0.04, 0.26, 1.01, 2.33));
+    assertEquals("MULTIPOLYGON (((0 0.3, 1 0.3, 1 2.3, 0 2.3, 0 0.3)))", PolygonUtil.toString(result));
+  }
+
+  @Test
+  public void instanceTest() {
+    PolygonSimplifier simplifier = new PolygonSimplifier(1, 1, 1);
+    PolygonSimplifier.setInstance(simplifier);
+    assertSame(simplifier, PolygonSimplifier.getInstance());
+    PolygonSimplifier.setInstance(null);
+    assertSame(PolygonSimplifier.NONE, PolygonSimplifier.getInstance());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTest() {
+    new PolygonSimplifier(-1, 0, 0);
+  }
+}
@@ -203,6 +203,32 @@ public class PolygonUtilTest {
       e.printStackTrace();
     }
   }
+  /**
+   * Tests the union of an empty list.
+   */
+  @Test
+  public void unionEmptyListTest() {
+    assertTrue(PolygonUtil.polygonUnion(new ArrayList<Polygon>()).isEmpty());
+  }
+  
+  /**
+   * Tests the union of many adjacent polygons.
+   */
+  @Test
+  public void unionManyTest() {
+    ArrayList<Polygon> unionlist = new ArrayList<>();
+    for (int x = 0; x < 20; x++) {
+      for (int y = 0; y < 20; y++) {
+        unionlist.add(PolygonUtil.makeRectangle(x, y, x + 1, y + 1));
+      }
+    }
+    unionlist.add(new Polygon());
+    
+    Polygon union = PolygonUtil.polygonUnion(unionlist);
+    assertEquals(400, union.calculateArea2D(), 0.0001);
+    assertTrue(PolygonUtil.polygonEquals(union, PolygonUtil.makeRectangle(0, 0, 20, 20)));
+  }
+  
   /**
    * Tests the makeRectangle function.
    */
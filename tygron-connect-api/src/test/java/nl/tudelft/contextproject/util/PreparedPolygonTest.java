@@ -0,0 +1,64 @@
+package nl.tudelft.contextproject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.esri.core.geometry.Polygon;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PreparedPolygonTest {
+  Polygon shape;
+  PreparedPolygon prepared;
+
+  /**
+   * Prepare an L-shaped polygon.
+   */
+  @Before
+  public void setup() {
+    shape = PolygonUtil.createPolygonFromWkt("MULTIPOLYGON (((0 0, 0 10, 4 10, 4 4, 10 4, 10 0, 0 0)))");
+    prepared = new PreparedPolygon(shape);
+  }
+
+  @Test
+  public void areaTest() {
+    assertEquals(shape.calculateArea2D(), prepared.getArea(), 0.0001);
+  }
+
+  @Test
+  public void clipTest() {
+    Polygon expected = PolygonUtil.polygonIntersection(PolygonUtil.makeRectangle(2, 2, 8, 8), shape);
+    assertTrue(PolygonUtil.polygonEquals(expected, prepared.clip(8, 8, 2, 2)));
+    assertTrue(prepared.clip(20, 20, 30, 30).isEmpty());
+    assertTrue(PolygonUtil.polygonEquals(shape, prepared.clip(-1, -1, 11, 11)));
+  }
+
+  @Test
+  public void maxClippedAreaTest() {
+    assertEquals(0, prepared.maxClippedArea(20, 20, 30, 30), 0.0001);
+    assertEquals(4, prepared.maxClippedArea(5, 5, 7, 7), 0.0001);
+    assertEquals(prepared.getArea(), prepared.maxClippedArea(-5, -5, 15, 15), 0.0001);
+  }
+
+  @Test
+  public void intersectsTest() {
+    assertTrue(prepared.intersects(PolygonUtil.makeRectangle(3, 3, 5, 5)));
+    assertFalse(prepared.intersects(PolygonUtil.makeRectangle(5, 5, 7, 7)));
+    assertFalse(prepared.intersects(PolygonUtil.makeRectangle(20, 20, 30, 30)));
+  }
+
+  @Test
+  public void containsTest() {
+    assertTrue(prepared.contains(PolygonUtil.makeRectangle(1, 1, 3, 3)));
+    assertFalse(prepared.contains(PolygonUtil.makeRectangle(3, 3, 5, 5)));
+  }
+
+  @Test
+  public void intersectionTest() {
+    Polygon other = PolygonUtil.makeRectangle(3, 3, 5, 5);
+    assertEquals(3, prepared.intersection(other).calculateArea2D(), 0.0001);
+    assertTrue(prepared.intersection(PolygonUtil.makeRectangle(20, 20, 30, 30)).isEmpty());
+  }
+}
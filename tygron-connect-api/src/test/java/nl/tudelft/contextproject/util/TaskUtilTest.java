@@ -0,0 +1,71 @@
+package nl.tudelft.contextproject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TaskUtilTest {
+  private ExecutorService executor;
+
+  @Before
+  public void setup() {
+    executor = Executors.newFixedThreadPool(2);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void orderTest() {
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          return value * value;
+        }
+      });
+    }
+    assertEquals(Arrays.asList(0, 1, 4, 9, 16), TaskUtil.invokeAll(executor, tasks));
+  }
+
+  @Test
+  public void failureTest() {
+    final AtomicInteger finished = new AtomicInteger();
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final int value = i;
+      tasks.add(new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          if (value % 2 == 1) {
+            throw new IllegalStateException("task " + value);
+          }
+          finished.incrementAndGet();
+          return value;
+        }
+      });
+    }
+    try {
+      TaskUtil.invokeAll(executor, tasks);
+      fail("The failure of a task should be thrown");
+    } catch (IllegalStateException e) {
+      assertEquals("task 1", e.getMessage());
+    }
+    assertEquals(2, finished.get());
+  }
+}
@@ -0,0 +1,119 @@
+package nl.tudelft.contextproject.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.esri.core.geometry.Geometry;
+import com.esri.core.geometry.OperatorExportToWkt;
+import com.esri.core.geometry.OperatorImportFromWkt;
+import com.esri.core.geometry.Polygon;
+import com.esri.core.geometry.WktImportFlags;
+
+import nl.tudelft.contextproject.tygron.CachedFileReader;
+
+import org.json.JSONArray;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class WktCodecTest {
+
+  private Polygon esriRead(String wkt) {
+    return (Polygon) OperatorImportFromWkt.local().execute(WktImportFlags.wktImportDefaults,
+        Geometry.Type.Polygon, wkt, null);
+  }
+
+  private void assertSamePoints(Polygon expected, Polygon actual) {
+    assertEquals(expected.getPathCount(), actual.getPathCount());
+    assertEquals(expected.getPointCount(), actual.getPointCount());
+    for (int i = 0; i < expected.getPointCount(); i++) {
+      assertEquals(expected.getXY(i), actual.getXY(i));
+    }
+    for (int i = 0; i < expected.getPathCount(); i++) {
+      assertEquals(expected.getPathStart(i), actual.getPathStart(i));
+    }
+  }
+
+  private List<String> fixtures() {
+    List<String> result = new ArrayList<>();
+    String[][] files = {{"building.json", "Building"}, {"land.json", "Land"}, {"zone.json", "Zone"}};
+    for (String[] file : files) {
+      String contents = CachedFileReader.getFileContents("/serverResponses/testmap/lists/" + file[0]);
+      JSONArray array = new JSONArray(contents);
+      for (int i = 0; i < array.length(); i++) {
+        result.add(array.getJSONObject(i).getJSONObject(file[1]).getString("polygons"));
+      }
+    }
+    result.add("MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 4 2, 4 4, 2 4, 2 2)), "
+        + "((20 20, 20 30, 30 30, 20 20)))");
+    result.add("POLYGON ((0 0, 10 0, 10 10, 0 0))");
+    return result;
+  }
+
+  @Test
+  public void readLikeEsriTest() {
+    for (String wkt : fixtures()) {
+      assertSamePoints(esriRead(wkt), WktCodec.read(wkt));
+    }
+  }
+
+  @Test
+  public void writeLikeEsriTest() {
+    for (String wkt : fixtures()) {
+      Polygon polygon = esriRead(wkt);
+      assertEquals(OperatorExportToWkt.local().execute(0, polygon, null), WktCodec.write(polygon));
+    }
+  }
+
+  @Test
+  public void emptyTest() {
+    assertTrue(WktCodec.read("MULTIPOLYGON EMPTY").isEmpty());
+    assertEquals("MULTIPOLYGON EMPTY", WktCodec.write(new Polygon()));
+  }
+
+  @Test
+  public void rectangleTest() {
+    assertSamePoints(esriRead("MULTIPOLYGON (((1 2, 1 8, 5 8, 5 2, 1 2)))"), WktCodec.rectangle(1, 2, 5, 8));
+    assertSamePoints(esriRead("MULTIPOLYGON (((5 8, 5 2, 1 2, 1 8, 5 8)))"), WktCodec.rectangle(5, 8, 1, 2));
+  }
+
+  @Test
+  public void localeTest() {
+    Locale locale = Locale.getDefault();
+    try {
+      Locale.setDefault(Locale.GERMANY);
+      assertEquals("MULTIPOLYGON (((0.5 0, 1 0, 1 1.25, 0.5 0)))",
+          WktCodec.write(WktCodec.read("MULTIPOLYGON (((0.5 0, 1 1.25, 1 0, 0.5 0)))")));
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+  @Test
+  public void smallNumberTest() {
+    assertEquals("MULTIPOLYGON (((0.0000001 0, 1 0, 1 1, 0.0000001 0)))",
+        WktCodec.write(WktCodec.read("MULTIPOLYGON (((1e-7 0, 1 0, 1 1, 1e-7 0)))")));
+  }
+
+  @Test
+  public void dimensionsTest() {
+    Polygon expected = WktCodec.read("POLYGON ((0 0, 1 1, 1 0, 0 0))");
+    assertSamePoints(expected, WktCodec.read("POLYGON Z ((0 0 5, 1 1 5, 1 0 5, 0 0 5))"));
+    assertSamePoints(expected, WktCodec.read("POLYGON M ((0 0 2, 1 1 2, 1 0 2, 0 0 2))"));
+    assertSamePoints(expected, WktCodec.read("POLYGON ZM ((0 0 5 2, 1 1 5 2, 1 0 5 2, 0 0 5 2))"));
+    assertSamePoints(expected, WktCodec.read("MULTIPOLYGON Z (((0 0 5, 1 1 5, 1 0 5, 0 0 5)))"));
+    assertTrue(WktCodec.read("POLYGON Z EMPTY").isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidTest() {
+    WktCodec.read("MULTIPOLYGON (((0 0, 1 1, 1 0)");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidNumberTest() {
+    WktCodec.read("POLYGON ((0 0, 1 a, 1 0))");
+  }
+}
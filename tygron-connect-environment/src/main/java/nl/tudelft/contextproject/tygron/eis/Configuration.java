@@ -1,13 +1,23 @@
 package nl.tudelft.contextproject.tygron.eis;
 
+import nl.tudelft.contextproject.tygron.api.Environment.UpdateMode;
+
+import java.io.File;
+
 public class Configuration {
   private int stakeholder;
   private String map;
   private int slot;
+  private UpdateMode updateMode;
+  private File stateFile;
 
+  /**
+   * Creates a configuration with default values.
+   */
   public Configuration() {
     slot = -1;
     stakeholder = -1;
+    updateMode = UpdateMode.POLLING;
   }
 
   public void setStakeholder(int stakeholderParametersList) {
@@ -34,4 +44,24 @@ public class Configuration {
     return slot;
   }
 
+  public void setUpdateMode(UpdateMode updateMode) {
+    this.updateMode = updateMode;
+  }
+
+  public UpdateMode getUpdateMode() {
+    return updateMode;
+  }
+
+  /**
+   * Sets the file that keeps the session state, so a restarted agent rejoins its session.
+   * @param stateFile the state file, or null to always join as a new client
+   */
+  public void setStateFile(File stateFile) {
+    this.stateFile = stateFile;
+  }
+
+  public File getStateFile() {
+    return stateFile;
+  }
+
 }
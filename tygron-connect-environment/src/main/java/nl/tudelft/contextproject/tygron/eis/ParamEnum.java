@@ -3,7 +3,9 @@ package nl.tudelft.contextproject.tygron.eis;
 public enum ParamEnum {
   STAKEHOLDER("stakeholder"), 
   MAP("map"),
-  SLOT("slot");
+  SLOT("slot"),
+  UPDATE("update"),
+  STATE("state");
   
   private String param;
 
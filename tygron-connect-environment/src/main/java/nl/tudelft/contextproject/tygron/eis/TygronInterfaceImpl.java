@@ -2,13 +2,18 @@ package nl.tudelft.contextproject.tygron.eis;
 
 import eis.exceptions.EntityException;
 import eis.exceptions.ManagementException;
+import eis.exceptions.NoEnvironmentException;
+import eis.exceptions.PerceiveException;
 import eis.iilang.Action;
 import eis.iilang.EnvironmentState;
 import eis.iilang.Identifier;
 import eis.iilang.Parameter;
 import eis.iilang.ParameterList;
+import eis.iilang.Percept;
+import nl.tudelft.contextproject.tygron.api.Bootstrap;
 import nl.tudelft.contextproject.tygron.api.Connector;
 import nl.tudelft.contextproject.tygron.api.Environment;
+import nl.tudelft.contextproject.tygron.api.Environment.UpdateMode;
 import nl.tudelft.contextproject.tygron.api.Session;
 import nl.tudelft.contextproject.tygron.eis.entities.Controller;
 import nl.tudelft.contextproject.tygron.eis.translators.ConfigurationTranslator;
@@ -19,6 +24,7 @@ import eis.eis2java.environment.AbstractEnvironment;
 import eis.eis2java.exception.TranslationException;
 import eis.eis2java.translation.Translator;
 
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -110,26 +116,39 @@ public class TygronInterfaceImpl extends AbstractEnvironment {
     //Create a new connection
     connector = makeConnector();
     
-    connector.connectToMap(configuration.getMap(),configuration.getSlot()); 
-    
-    //Get the session manager
-    controller = connector.getSession();
-    
-    environment = controller.getEnvironment();
-    
-    environment.allowGameInteraction(true);
-    
     if (configuration.getStakeholder() == -1) {
       throw new ManagementException("Stakeholder is not defined in mas2g file.");
     }
 
-    environment.setStakeholder(configuration.getStakeholder());
+    // Join the session and select the stakeholder, running independent steps at the same time.
+    // The agent threads call in on threads of their own, so the session keeps the connection
+    // data shared by all threads instead of sharing data with other sessions.
+    Bootstrap bootstrap = new Bootstrap(configuration.getMap(), configuration.getSlot(),
+        configuration.getStakeholder());
+    bootstrap.setUpdateMode(configuration.getUpdateMode());
+    bootstrap.setStateFile(configuration.getStateFile());
+    controller = bootstrap.run(connector);
+    
+    environment = controller.getEnvironment();
     
     setState(EnvironmentState.PAUSED);
   }
   
   protected Connector makeConnector() {
-    return new Connector();
+    return new Connector(false);
+  }
+
+  /* (non-Javadoc)
+   * @see eis.eis2java.environment.AbstractEnvironment#getAllPerceptsFromEntity(java.lang.String)
+   */
+  @Override
+  protected LinkedList<Percept> getAllPerceptsFromEntity(String entity)
+      throws PerceiveException, NoEnvironmentException {
+    // In step mode the data is refreshed once at the start of every perception round.
+    if (environment != null && environment.getUpdateMode() == UpdateMode.STEP) {
+      environment.step();
+    }
+    return super.getAllPerceptsFromEntity(entity);
   }
 
   /* (non-Javadoc)
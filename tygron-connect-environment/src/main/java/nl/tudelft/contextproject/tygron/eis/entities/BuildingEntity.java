@@ -20,12 +20,12 @@ public class BuildingEntity {
   }
   
   /**
-   * Percepts the buildings.
+   * Percepts the buildings, including the changes the agent requested that are not loaded yet.
    * @return the list of buildings
    */
   public List<TygronPercept> buildings() {  
     List<TygronPercept> result = new ArrayList<>();
-    BuildingList buildingList = environment.get(BuildingList.class);
+    BuildingList buildingList = environment.getProjectedBuildings();
 
     for (Building building : buildingList) {
       result.add(new TygronPercept(building.getId(), building.getName()));
@@ -2,6 +2,7 @@ package nl.tudelft.contextproject.tygron.eis.translators;
 
 import eis.iilang.Identifier;
 import eis.iilang.Parameter;
+import nl.tudelft.contextproject.tygron.api.Environment.UpdateMode;
 import nl.tudelft.contextproject.tygron.eis.Configuration;
 import nl.tudelft.contextproject.tygron.eis.ParamEnum;
 
@@ -9,7 +10,9 @@ import eis.eis2java.exception.TranslationException;
 import eis.eis2java.translation.Parameter2Java;
 import eis.eis2java.translation.Translator;
 
+import java.io.File;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -46,6 +49,14 @@ public class ConfigurationTranslator implements Parameter2Java<Configuration> {
           configuration.setSlot(translator.translate2Java(entry.getValue(),
               Integer.class));
           break;
+        case UPDATE:
+          configuration.setUpdateMode(translateUpdateMode(translator.translate2Java(
+              entry.getValue(), String.class)));
+          break;
+        case STATE:
+          configuration.setStateFile(new File(translator.translate2Java(entry.getValue(),
+              String.class)));
+          break;
         default:
           break;
       }
@@ -54,6 +65,20 @@ public class ConfigurationTranslator implements Parameter2Java<Configuration> {
     return configuration;
   }
 
+  /**
+   * Translates the name of an update mode, like "polling" or "step".
+   * @param mode the name of the mode.
+   * @return the update mode.
+   * @throws TranslationException if there is no mode with that name.
+   */
+  private UpdateMode translateUpdateMode(String mode) throws TranslationException {
+    try {
+      return UpdateMode.valueOf(mode.toUpperCase(Locale.ENGLISH));
+    } catch (IllegalArgumentException e) {
+      throw new TranslationException("Unknown update mode " + mode);
+    }
+  }
+
   @Override
   public Class<Configuration> translatesTo() {
     return Configuration.class;
@@ -2,9 +2,13 @@ package nl.tudelft.contextproject.tygron.eis;
 
 import static org.junit.Assert.assertEquals;
 
+import nl.tudelft.contextproject.tygron.api.Environment.UpdateMode;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+
 public class ConfigurationTest {
 
   Configuration configuration;
@@ -19,6 +23,8 @@ public class ConfigurationTest {
     assertEquals(-1,configuration.getStakeholder());
     assertEquals(-1,configuration.getSlot());
     assertEquals(null,configuration.getMap());
+    assertEquals(UpdateMode.POLLING,configuration.getUpdateMode());
+    assertEquals(null,configuration.getStateFile());
   }
   
   @Test
@@ -38,4 +44,16 @@ public class ConfigurationTest {
     configuration.setStakeholder(1);
     assertEquals(1,configuration.getStakeholder());
   }
+  
+  @Test
+  public void test_updateMode() {
+    configuration.setUpdateMode(UpdateMode.STEP);
+    assertEquals(UpdateMode.STEP,configuration.getUpdateMode());
+  }
+
+  @Test
+  public void test_stateFile() {
+    configuration.setStateFile(new File("session.properties"));
+    assertEquals(new File("session.properties"),configuration.getStateFile());
+  }
 }
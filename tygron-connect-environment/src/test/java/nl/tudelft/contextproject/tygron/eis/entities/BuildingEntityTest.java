@@ -13,7 +13,6 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 
 @RunWith(value = MockitoJUnitRunner.class)
@@ -40,7 +39,7 @@ public class BuildingEntityTest {
     buildinglist = new BuildingList();
     buildinglist.add(building);
 
-    doReturn(buildinglist).when(environment).get(eq(BuildingList.class));
+    doReturn(buildinglist).when(environment).getProjectedBuildings();
     buildingEntity = new BuildingEntity(environment);
   }
   
@@ -50,6 +50,7 @@ public class ControllerTest {
     when(env.requestsOpen()).thenReturn(1);
     
     when(env.get(BuildingList.class)).thenReturn(buildingList);
+    when(env.getProjectedBuildings()).thenReturn(buildingList);
     when(env.get(StakeholderList.class)).thenReturn(stakeholderList);
     when(env.get(EconomyList.class)).thenReturn(economyList);
     when(env.get(IndicatorList.class)).thenReturn(indicatorList);
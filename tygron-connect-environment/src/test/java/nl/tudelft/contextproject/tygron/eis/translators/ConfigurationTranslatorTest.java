@@ -5,6 +5,7 @@ import static org.junit.Assert.assertEquals;
 import eis.iilang.Identifier;
 import eis.iilang.Numeral;
 import eis.iilang.ParameterList;
+import nl.tudelft.contextproject.tygron.api.Environment.UpdateMode;
 import nl.tudelft.contextproject.tygron.eis.Configuration;
 
 import org.junit.Before;
@@ -13,6 +14,8 @@ import org.junit.Test;
 import eis.eis2java.exception.TranslationException;
 import eis.eis2java.translation.Translator;
 
+import java.io.File;
+
 
 public class ConfigurationTranslatorTest {
 
@@ -42,16 +45,40 @@ public class ConfigurationTranslatorTest {
     parametersMap.add(new Identifier("map"));
     parametersMap.add(new Identifier("testmap"));
     
+    ParameterList parametersUpdate = new ParameterList();
+    parametersUpdate.add(new Identifier("update"));
+    parametersUpdate.add(new Identifier("step"));
+    
+    ParameterList parametersState = new ParameterList();
+    parametersState.add(new Identifier("state"));
+    parametersState.add(new Identifier("session.properties"));
+    
     ParameterList list = new ParameterList();
     list.add(parametersMap);
     list.add(parametersSlot);
     list.add(parametersStakeholder);
+    list.add(parametersUpdate);
+    list.add(parametersState);
     
     Configuration config = translator.translate(list);
 
     assertEquals("testmap",config.getMap());
     assertEquals(1,config.getSlot());
     assertEquals(1,config.getStakeholder());     
+    assertEquals(UpdateMode.STEP,config.getUpdateMode());
+    assertEquals(new File("session.properties"),config.getStateFile());
+  }
+  
+  @Test(expected = TranslationException.class)
+  public void test_invalidUpdateMode() throws TranslationException {
+    ParameterList parametersUpdate = new ParameterList();
+    parametersUpdate.add(new Identifier("update"));
+    parametersUpdate.add(new Identifier("sometimes"));
+    
+    ParameterList list = new ParameterList();
+    list.add(parametersUpdate);
+    
+    translator.translate(list);
   }
 
   @Test
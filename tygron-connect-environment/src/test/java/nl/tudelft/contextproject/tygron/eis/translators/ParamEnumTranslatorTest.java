@@ -40,6 +40,12 @@ public class ParamEnumTranslatorTest {
     assertEquals(ParamEnum.MAP,translator.translate(param));
   }
   
+  @Test
+  public void test_translate_update() throws TranslationException {
+    Parameter param = new Identifier("update");
+    assertEquals(ParamEnum.UPDATE,translator.translate(param));
+  }
+  
   @Test(expected = TranslationException.class) 
   public void test_translate_invalid() throws TranslationException {
     Parameter param = new Identifier("INVVALID");